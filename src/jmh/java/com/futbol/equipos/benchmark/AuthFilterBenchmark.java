@@ -0,0 +1,97 @@
+package com.futbol.equipos.benchmark;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.futbol.equipos.security.AuthFilter;
+import com.futbol.equipos.security.JwtUtil;
+import com.futbol.equipos.security.TokenCache;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Costo por solicitud del filtro JWT.
+ * Con cacheTokens=false cada solicitud verifica la firma y busca el usuario (comportamiento anterior);
+ * con cacheTokens=true las solicitudes repetidas con el mismo token se resuelven desde la caché.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthFilterBenchmark {
+
+    private static final String SECRET = "12345678912345678912345678912345";
+
+    @Param({"false", "true"})
+    public boolean cacheTokens;
+
+    private AuthFilter filtro;
+
+    private JwtUtil jwtUtil;
+
+    private Key key;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, Duration.ofHours(10));
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        token = jwtUtil.generateToken("test");
+
+        filtro = new AuthFilter();
+        ReflectionTestUtils.setField(filtro, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filtro, "userDetailsService", new InMemoryUserDetailsManager(
+                User.withUsername("test").password("{noop}12345").roles("USER").build()));
+        ReflectionTestUtils.setField(filtro, "tokenCache", new TokenCache(cacheTokens ? 10000 : 0, Duration.ofMinutes(5)));
+        ReflectionTestUtils.setField(filtro, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public Object filtroCompleto() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/equipos/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        filtro.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+        Object autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return autenticacion;
+    }
+
+    /* Costo de construir un parser nuevo en cada verificación, como hacía getParser() antes */
+    @Benchmark
+    public Object parserPorSolicitud() {
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public Object parserCompartido() {
+        return jwtUtil.getParser().parseClaimsJws(token).getBody();
+    }
+}
@@ -0,0 +1,68 @@
+package com.futbol.equipos.benchmark;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compara dos resultados JMH en formato JSON e informa las regresiones.
+ * Uso: CompararResultados base.json actual.json [umbral-porcentaje]
+ * Termina con código 1 si algún benchmark empeoró más que el umbral (10% por defecto).
+ */
+public class CompararResultados {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Uso: CompararResultados base.json actual.json [umbral-porcentaje]");
+            System.exit(2);
+        }
+        double umbral = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        Map<String, JsonNode> base = leer(new File(args[0]));
+        Map<String, JsonNode> actual = leer(new File(args[1]));
+
+        int regresiones = 0;
+        for (Map.Entry<String, JsonNode> entrada : actual.entrySet()) {
+            JsonNode anterior = base.get(entrada.getKey());
+            if (anterior == null) {
+                System.out.printf("%-90s %12s%n", entrada.getKey(), "nuevo");
+                continue;
+            }
+            double antes = anterior.path("primaryMetric").path("score").asDouble();
+            double ahora = entrada.getValue().path("primaryMetric").path("score").asDouble();
+            String unidad = entrada.getValue().path("primaryMetric").path("scoreUnit").asText();
+
+            // en modos de tiempo por operación (us/op) más es peor; en throughput (ops/s) menos es peor
+            double cambio = (ahora - antes) / antes * 100;
+            double empeora = unidad.endsWith("/op") ? cambio : -cambio;
+            boolean regresion = empeora > umbral;
+            if (regresion) {
+                regresiones++;
+            }
+            System.out.printf("%-90s %12.3f -> %12.3f %-8s %+7.1f%% %s%n",
+                    entrada.getKey(), antes, ahora, unidad, cambio, regresion ? "REGRESION" : "");
+        }
+
+        if (regresiones > 0) {
+            System.out.println(regresiones + " benchmark(s) empeoraron más de " + umbral + "%");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Lee un archivo de resultados JMH, indexando cada resultado por benchmark y parámetros.
+     */
+    private static Map<String, JsonNode> leer(File archivo) throws Exception {
+        Map<String, JsonNode> resultados = new LinkedHashMap<>();
+        for (JsonNode resultado : new ObjectMapper().readTree(archivo)) {
+            Map<String, String> params = new TreeMap<>();
+            resultado.path("params").fields().forEachRemaining(p -> params.put(p.getKey(), p.getValue().asText()));
+            resultados.put(resultado.path("benchmark").asText() + (params.isEmpty() ? "" : " " + params), resultado);
+        }
+        return resultados;
+    }
+}
@@ -0,0 +1,121 @@
+package com.futbol.equipos.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import com.futbol.equipos.EquiposApplication;
+import com.futbol.equipos.service.EquipoService;
+
+/**
+ * Lecturas de EquipoService contra una base H2 en memoria cargada con distintas cantidades de equipos.
+ * Con cache=none se desactiva la caché de Spring para medir el costo de la consulta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EquipoServiceBenchmark {
+
+    private static final int EQUIPOS_SCRIPT = 24;
+
+    @Param({"1000", "100000", "1000000"})
+    public int filas;
+
+    @Param({"caffeine", "none"})
+    public String cache;
+
+    private ConfigurableApplicationContext contexto;
+
+    private EquipoService equipoService;
+
+    private SplittableRandom random;
+
+    private String nombreBuscado;
+
+    @Setup
+    public void setUp() throws Exception {
+        String url = "jdbc:h2:mem:bench-" + filas + "-" + cache + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+        cargarBase(url, filas);
+
+        contexto = new SpringApplicationBuilder(EquiposApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.sql.init.mode=never",
+                        "--spring.cache.type=" + cache,
+                        "--logging.level.root=WARN");
+        equipoService = contexto.getBean(EquipoService.class);
+        random = new SplittableRandom(42);
+        nombreBuscado = "quipo " + filas / 2;
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    /**
+     * Crea el esquema con script.sql y agrega equipos generados hasta llegar a la cantidad pedida.
+     * Se hace antes de levantar el contexto para que el índice de nombres se construya sobre todas las filas.
+     */
+    static void cargarBase(String url, int filas) throws Exception {
+        try (Connection conexion = DriverManager.getConnection(url, "sa", "")) {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("script.sql"));
+            populator.setSqlScriptEncoding("UTF-8");
+            populator.populate(conexion);
+
+            try (Statement statement = conexion.createStatement()) {
+                statement.execute("INSERT INTO equipos (id, nombre, liga, pais) "
+                        + "SELECT X, 'Equipo ' || X, 'Liga ' || MOD(X, 50), 'Pais ' || MOD(X, 20) "
+                        + "FROM SYSTEM_RANGE(" + (EQUIPOS_SCRIPT + 1) + ", " + filas + ")");
+                statement.execute("ALTER SEQUENCE equipos_seq RESTART WITH " + (filas + 1));
+            }
+        }
+    }
+
+    @Benchmark
+    public Object findById() {
+        return equipoService.findById(random.nextLong(1, filas + 1));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object findAll() {
+        return equipoService.findAll();
+    }
+
+    @Benchmark
+    public Object findPagina() {
+        // primera página completa ordenada por nombre: no hay índice sobre nombre, así que la base recorre toda
+        // la tabla y la ordena para quedarse con LIMITE_MAXIMO filas; el costo crece con la cantidad de equipos
+        return equipoService.findPagina(null, EquipoService.LIMITE_MAXIMO, "nombre");
+    }
+
+    @Benchmark
+    public Object findAllByNombreContaining() {
+        // coincide con un único equipo sin importar el tamaño de la tabla
+        return equipoService.findAllByNombreContaining(nombreBuscado);
+    }
+}
@@ -0,0 +1,91 @@
+package com.futbol.equipos.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.futbol.equipos.response.EquipoResponse;
+
+/**
+ * Serialización de la lista completa de equipos (GET /equipos?all=true) en cada formato que se puede negociar
+ * con Accept, con y sin gzip. Al terminar cada combinación informa los bytes que viajarían en la respuesta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatosBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    public String formato;
+
+    @Param({"ninguna", "gzip"})
+    public String compresion;
+
+    @Param({"1000", "100000"})
+    public int tamanio;
+
+    private ObjectMapper objectMapper;
+
+    private List<EquipoResponse> equipos;
+
+    /* Bytes de la última respuesta serializada */
+    private volatile int bytes;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (formato.equals("smile")) {
+            builder.factory(new SmileFactory());
+        } else if (formato.equals("cbor")) {
+            builder.factory(new CBORFactory());
+        }
+        objectMapper = builder.build();
+        equipos = new ArrayList<>(tamanio);
+        for (long i = 1; i <= tamanio; i++) {
+            equipos.add(new EquipoResponse(i, "Equipo " + i, "Liga " + (i % 50), "País " + (i % 20)));
+        }
+    }
+
+    @TearDown
+    public void informarTamanio() {
+        System.out.printf("%n%s/%s/%d: %d bytes por respuesta%n", formato, compresion, tamanio, bytes);
+    }
+
+    @Benchmark
+    public byte[] serializarLista() throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(8192);
+        if (compresion.equals("gzip")) {
+            try (OutputStream gzip = new GZIPOutputStream(salida, 8192)) {
+                objectMapper.writeValue(gzip, equipos);
+            }
+        } else {
+            objectMapper.writeValue(salida, equipos);
+        }
+        bytes = salida.size();
+        return salida.toByteArray();
+    }
+}
@@ -0,0 +1,82 @@
+package com.futbol.equipos.benchmark;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mide el tiempo de arranque de la aplicación empaquetada: la inicia varias veces, espera la línea
+ * "Started EquiposApplication ... (process running for N)" y la detiene. Informa cada corrida y el mínimo,
+ * la mediana y el máximo del tiempo desde que arrancó la JVM hasta que la aplicación quedó lista.
+ * Uso: MedirArranque repeticiones [opciones-jvm...] -jar app.jar [argumentos...]
+ * La primera corrida contra una base nueva incluye la creación del esquema; las siguientes la omiten.
+ */
+public class MedirArranque {
+
+    private static final Pattern LISTA = Pattern.compile("Started \\S+ in [0-9.]+ seconds \\(process running for ([0-9.]+)\\)");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Uso: MedirArranque repeticiones [opciones-jvm...] -jar app.jar [argumentos...]");
+            System.exit(2);
+        }
+        int repeticiones = Integer.parseInt(args[0]);
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        // las propiedades vacías del perfil de Maven llegan como argumentos en blanco
+        Arrays.stream(args, 1, args.length).filter(arg -> !arg.isBlank()).forEach(comando::add);
+        comando.add("--server.port=0");
+
+        List<Double> tiempos = new ArrayList<>();
+        for (int i = 1; i <= repeticiones; i++) {
+            double segundos = arrancar(comando);
+            tiempos.add(segundos);
+            System.out.printf("corrida %d: %.3f s%n", i, segundos);
+        }
+
+        Collections.sort(tiempos);
+        System.out.printf("min %.3f s, mediana %.3f s, max %.3f s (%d corridas)%n",
+                tiempos.get(0), tiempos.get(tiempos.size() / 2), tiempos.get(tiempos.size() - 1), tiempos.size());
+    }
+
+    /**
+     * Inicia la aplicación, espera a que esté lista y la detiene.
+     *
+     * @return Segundos desde el inicio de la JVM hasta que la aplicación quedó lista.
+     */
+    private static double arrancar(List<String> comando) throws Exception {
+        Process proceso = new ProcessBuilder(comando).redirectErrorStream(true).start();
+        try (BufferedReader salida = new BufferedReader(new InputStreamReader(proceso.getInputStream(), StandardCharsets.UTF_8))) {
+            // últimas líneas de la salida, para mostrar por qué no arrancó
+            Deque<String> ultimas = new ArrayDeque<>();
+            String linea;
+            while ((linea = salida.readLine()) != null) {
+                if (ultimas.size() == 20) {
+                    ultimas.removeFirst();
+                }
+                ultimas.addLast(linea);
+                Matcher lista = LISTA.matcher(linea);
+                if (lista.find()) {
+                    return Double.parseDouble(lista.group(1));
+                }
+            }
+            throw new IllegalStateException("La aplicación terminó sin arrancar (código " + proceso.waitFor() + "):"
+                    + System.lineSeparator() + String.join(System.lineSeparator(), ultimas));
+        } finally {
+            proceso.destroy();
+            if (!proceso.waitFor(60, TimeUnit.SECONDS)) {
+                proceso.destroyForcibly().waitFor();
+            }
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.futbol.equipos.benchmark;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.futbol.equipos.EquiposApplication;
+
+/**
+ * Prueba de carga HTTP: inicia la aplicación en este mismo proceso sobre una base H2 en memoria, se autentica con
+ * /auth/login y envía la mezcla de solicitudes de un escenario a tasa fija (modelo abierto). Cada solicitud tiene
+ * un instante programado y se envía sin esperar las respuestas anteriores; su latencia se mide desde ese instante
+ * y no desde el envío, así una demora del servidor o del generador no se oculta (coordinated omission).
+ * Informa percentiles HdrHistogram por solicitud, guarda el resultado en JSON y lo compara con una corrida base.
+ * Uso: PruebaCarga escenario.json resultado.json [base.json] [umbral-porcentaje]
+ * Termina con código 1 si el p99 de alguna solicitud empeoró más que el umbral (10% por defecto) o si aparecieron
+ * errores que la base no tenía.
+ */
+public class PruebaCarga {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Escenario escenario;
+
+    private final String url;
+
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /* Número para {n}: distinto en cada solicitud */
+    private final AtomicLong secuencia = new AtomicLong();
+
+    private final AtomicLong pendientes = new AtomicLong();
+
+    private volatile String token;
+
+    private volatile String refreshToken;
+
+    private PruebaCarga(Escenario escenario, String url) {
+        this.escenario = escenario;
+        this.url = url;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Uso: PruebaCarga escenario.json resultado.json [base.json] [umbral-porcentaje]");
+            System.exit(2);
+        }
+        Escenario escenario = JSON.readValue(new File(args[0]), Escenario.class);
+        File base = args.length > 2 && !args[2].isBlank() ? new File(args[2]) : null;
+        double umbral = args.length > 3 ? Double.parseDouble(args[3]) : 10.0;
+
+        Map<String, Medicion> mediciones;
+        try (ConfigurableApplicationContext contexto = iniciar(escenario)) {
+            int puerto = contexto.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            mediciones = new PruebaCarga(escenario, "http://localhost:" + puerto).ejecutar();
+        }
+
+        ObjectNode resultado = informar(escenario, mediciones);
+        JSON.writeValue(new File(args[1]), resultado);
+        System.out.println("Resultado guardado en " + args[1]);
+
+        if (base == null || !base.exists()) {
+            System.out.println("Sin corrida base para comparar" + (base == null ? "" : " (" + base + " no existe)"));
+            return;
+        }
+        if (comparar(JSON.readTree(base), resultado, umbral) > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Inicia la aplicación en un puerto libre, con una base en memoria y las propiedades del escenario.
+     */
+    private static ConfigurableApplicationContext iniciar(Escenario escenario) {
+        // devtools está en el classpath de pruebas y reiniciaría PruebaCarga.main con los argumentos de la aplicación
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> argumentos = new ArrayList<>();
+        argumentos.add("--server.port=0");
+        argumentos.add("--spring.datasource.url=jdbc:h2:mem:carga;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        if (escenario.propiedades() != null) {
+            escenario.propiedades().forEach((clave, valor) -> argumentos.add("--" + clave + "=" + valor));
+        }
+        return SpringApplication.run(EquiposApplication.class, argumentos.toArray(String[]::new));
+    }
+
+    /**
+     * Ejecuta el calentamiento y la medición y espera las respuestas pendientes.
+     *
+     * @return Las mediciones de cada solicitud del escenario, sin las del calentamiento.
+     */
+    private Map<String, Medicion> ejecutar() throws Exception {
+        autenticar();
+        ScheduledExecutorService renovacion = Executors.newSingleThreadScheduledExecutor();
+        long periodoRenovacion = DurationStyle.detectAndParse(escenario.renovacion() != null ? escenario.renovacion() : "5m").toMillis();
+        renovacion.scheduleAtFixedRate(this::renovar, periodoRenovacion, periodoRenovacion, TimeUnit.MILLISECONDS);
+
+        List<Solicitud> solicitudes = escenario.solicitudes();
+        Map<String, Medicion> mediciones = new LinkedHashMap<>();
+        int[] pesos = new int[solicitudes.size()];
+        int total = 0;
+        for (int i = 0; i < solicitudes.size(); i++) {
+            mediciones.put(solicitudes.get(i).nombre(), new Medicion());
+            total += solicitudes.get(i).peso();
+            pesos[i] = total;
+        }
+
+        long calentamiento = DurationStyle.detectAndParse(escenario.calentamiento()).toNanos();
+        long duracion = DurationStyle.detectAndParse(escenario.duracion()).toNanos();
+        System.out.printf("%s: %.0f solicitudes/s, calentamiento %s, medición %s%n",
+                escenario.nombre(), escenario.tasa(), escenario.calentamiento(), escenario.duracion());
+
+        long inicio = System.nanoTime();
+        long finCalentamiento = inicio + calentamiento;
+        long fin = finCalentamiento + duracion;
+        for (long i = 0; ; i++) {
+            long programado = inicio + (long) (i * 1_000_000_000.0 / escenario.tasa());
+            if (programado - fin >= 0) {
+                break;
+            }
+            long resto;
+            while ((resto = programado - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(resto);
+            }
+            int elegido = ThreadLocalRandom.current().nextInt(total);
+            int indice = 0;
+            while (pesos[indice] <= elegido) {
+                indice++;
+            }
+            Solicitud solicitud = solicitudes.get(indice);
+            Medicion medicion = programado - finCalentamiento >= 0 ? mediciones.get(solicitud.nombre()) : null;
+            enviar(solicitud, programado, medicion);
+        }
+
+        // las respuestas que siguen en curso también cuentan, hasta que venzan
+        while (pendientes.get() > 0) {
+            Thread.sleep(10);
+        }
+        renovacion.shutdownNow();
+        mediciones.values().forEach(medicion -> medicion.segundos = duracion / 1e9);
+        return mediciones;
+    }
+
+    /**
+     * Envía una solicitud sin esperar la respuesta y registra su latencia desde el instante programado.
+     */
+    private void enviar(Solicitud solicitud, long programado, Medicion medicion) {
+        String ruta = reemplazar(solicitud.ruta());
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url + ruta))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+        String metodo = solicitud.metodo() != null ? solicitud.metodo() : "GET";
+        if (solicitud.cuerpo() != null) {
+            builder.header("Content-Type", "application/json");
+            builder.method(metodo, HttpRequest.BodyPublishers.ofString(reemplazar(solicitud.cuerpo())));
+        } else {
+            builder.method(metodo, HttpRequest.BodyPublishers.noBody());
+        }
+        pendientes.incrementAndGet();
+        cliente.sendAsync(builder.build(), HttpResponse.BodyHandlers.discarding()).whenComplete((respuesta, error) -> {
+            if (medicion != null) {
+                medicion.registrar(System.nanoTime() - programado, error == null && respuesta.statusCode() < 400);
+            }
+            pendientes.decrementAndGet();
+        });
+    }
+
+    /**
+     * Reemplaza {id} por un ID existente al azar y {n} por un número distinto en cada solicitud.
+     */
+    private String reemplazar(String texto) {
+        if (texto.contains("{id}")) {
+            texto = texto.replace("{id}", String.valueOf(ThreadLocalRandom.current().nextInt(escenario.ids()) + 1));
+        }
+        if (texto.contains("{n}")) {
+            texto = texto.replace("{n}", String.valueOf(secuencia.incrementAndGet()));
+        }
+        return texto;
+    }
+
+    private void autenticar() throws Exception {
+        ObjectNode credenciales = JSON.createObjectNode()
+                .put("username", escenario.usuario())
+                .put("password", escenario.contrasena());
+        guardarTokens(post("/auth/login", credenciales));
+    }
+
+    /* Renueva el token JWT antes de que venza, como haría un cliente real */
+    private void renovar() {
+        try {
+            guardarTokens(post("/auth/refresh", JSON.createObjectNode().put("refreshToken", refreshToken)));
+        } catch (Exception e) {
+            System.err.println("No se pudo renovar el token: " + e.getMessage());
+        }
+    }
+
+    private void guardarTokens(JsonNode respuesta) {
+        token = respuesta.path("token").asText();
+        refreshToken = respuesta.path("refreshToken").asText();
+    }
+
+    private JsonNode post(String ruta, JsonNode cuerpo) throws Exception {
+        HttpResponse<String> respuesta = cliente.send(HttpRequest.newBuilder(URI.create(url + ruta))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(cuerpo)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() != 200) {
+            throw new IllegalStateException(ruta + " respondió " + respuesta.statusCode() + ": " + respuesta.body());
+        }
+        return JSON.readTree(respuesta.body());
+    }
+
+    /**
+     * Imprime la tabla de percentiles y arma el resultado a guardar, con latencias en milisegundos.
+     */
+    private static ObjectNode informar(Escenario escenario, Map<String, Medicion> mediciones) {
+        ObjectNode resultado = JSON.createObjectNode();
+        resultado.put("escenario", escenario.nombre());
+        resultado.put("tasa", escenario.tasa());
+        ObjectNode porSolicitud = resultado.putObject("solicitudes");
+
+        System.out.printf("%-32s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+                "solicitud", "cantidad", "errores", "sol/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        mediciones.forEach((nombre, medicion) -> {
+            Histogram histograma = medicion.latencias;
+            ObjectNode fila = porSolicitud.putObject(nombre);
+            fila.put("cantidad", histograma.getTotalCount());
+            fila.put("errores", medicion.errores.get());
+            System.out.printf("%-32s %9d %8d %9.1f", nombre, histograma.getTotalCount(), medicion.errores.get(),
+                    histograma.getTotalCount() / medicion.segundos);
+            for (double percentil : PERCENTILES) {
+                double milisegundos = histograma.getValueAtPercentile(percentil) / 1000.0;
+                fila.put("p" + (percentil == Math.rint(percentil) ? String.valueOf((int) percentil) : String.valueOf(percentil)), milisegundos);
+                System.out.printf(" %9.2f", milisegundos);
+            }
+            fila.put("max", histograma.getMaxValue() / 1000.0);
+            System.out.printf(" %9.2f%n", histograma.getMaxValue() / 1000.0);
+        });
+        return resultado;
+    }
+
+    /**
+     * Compara el p99 y los errores de cada solicitud con la corrida base.
+     *
+     * @return Cantidad de solicitudes con regresión.
+     */
+    private static int comparar(JsonNode base, JsonNode actual, double umbral) {
+        int regresiones = 0;
+        System.out.printf("%nComparación de p99 contra la base (umbral %.0f%%)%n", umbral);
+        var filas = actual.path("solicitudes").fields();
+        while (filas.hasNext()) {
+            var fila = filas.next();
+            JsonNode anterior = base.path("solicitudes").get(fila.getKey());
+            if (anterior == null) {
+                System.out.printf("%-32s %12s%n", fila.getKey(), "nuevo");
+                continue;
+            }
+            double antes = anterior.path("p99").asDouble();
+            double ahora = fila.getValue().path("p99").asDouble();
+            double cambio = antes > 0 ? (ahora - antes) / antes * 100 : 0;
+            boolean errores = fila.getValue().path("errores").asLong() > 0 && anterior.path("errores").asLong() == 0;
+            boolean regresion = cambio > umbral || errores;
+            if (regresion) {
+                regresiones++;
+            }
+            System.out.printf("%-32s %9.2f -> %9.2f ms %+7.1f%% %s%n", fila.getKey(), antes, ahora, cambio,
+                    regresion ? (errores ? "REGRESION (errores)" : "REGRESION") : "");
+        }
+        if (regresiones > 0) {
+            System.out.println(regresiones + " solicitud(es) empeoraron más de " + umbral + "% o tuvieron errores");
+        }
+        return regresiones;
+    }
+
+    /* Latencias en microsegundos y errores de una solicitud del escenario */
+    private static final class Medicion {
+        private final Histogram latencias = new ConcurrentHistogram(3);
+        private final AtomicLong errores = new AtomicLong();
+        private double segundos;
+
+        private void registrar(long nanos, boolean exitosa) {
+            latencias.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+            if (!exitosa) {
+                errores.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Escenario de carga.
+     *
+     * @param nombre Nombre del escenario.
+     * @param tasa Solicitudes por segundo, repartidas entre las solicitudes según su peso.
+     * @param calentamiento Tiempo inicial que no se mide, por ejemplo "10s".
+     * @param duracion Tiempo medido.
+     * @param renovacion Cada cuánto se renueva el token con /auth/refresh (5m si no se indica).
+     * @param usuario Usuario para /auth/login.
+     * @param contrasena Contraseña para /auth/login.
+     * @param ids Cantidad de equipos existentes; {id} se reemplaza por uno entre 1 y ids.
+     * @param propiedades Propiedades con que se inicia la aplicación.
+     * @param solicitudes Mezcla de solicitudes.
+     */
+    record Escenario(String nombre, double tasa, String calentamiento, String duracion, String renovacion,
+            String usuario, String contrasena, int ids, Map<String, String> propiedades, List<Solicitud> solicitudes) {
+    }
+
+    /**
+     * Solicitud del escenario.
+     *
+     * @param nombre Nombre con que aparece en el informe.
+     * @param metodo Método HTTP (GET si no se indica).
+     * @param ruta Ruta con parámetros; admite {id} y {n}.
+     * @param cuerpo Cuerpo JSON, o null; admite {id} y {n}.
+     * @param peso Proporción de la tasa que corresponde a esta solicitud.
+     */
+    record Solicitud(String nombre, String metodo, String ruta, String cuerpo, int peso) {
+    }
+}
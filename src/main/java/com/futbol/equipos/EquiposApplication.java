@@ -5,6 +5,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
@@ -13,6 +14,7 @@ import io.swagger.v3.oas.annotations.info.Info;
 @ComponentScan("com.futbol.equipos")
 @EntityScan("com.futbol.equipos.entity")
 @EnableJpaRepositories("com.futbol.equipos.repository")
+@EnableScheduling
 @OpenAPIDefinition(info = @Info(title = "API Equipos"))
 public class EquiposApplication {
 
@@ -0,0 +1,65 @@
+package com.futbol.equipos.cache;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Habilita la caché en memoria delante de EquipoRepository.
+ * El tamaño máximo, la expiración y el registro de estadísticas se configuran con
+ * spring.cache.caffeine.spec; las métricas de aciertos, fallos y desalojos se exponen en /actuator/metrics.
+ * La caché se evalúa antes que @Transactional, por lo que un acierto no abre transacción ni toma conexión.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    /* Caché de equipos individuales, por ID */
+    public static final String CACHE_EQUIPOS = "equipos";
+
+    /* Caché con la lista completa de equipos */
+    public static final String CACHE_EQUIPOS_TODOS = "equiposTodos";
+
+    /* Única clave de la caché con la lista completa */
+    public static final String CLAVE_TODOS = "todos";
+
+    /**
+     * Con hilos virtuales, pasa la caché a modo asíncrono.
+     * En modo síncrono, las cargas de @Cacheable(sync = true) se ejecutan dentro de ConcurrentHashMap.compute,
+     * que toma un monitor mientras se consulta la base: el hilo virtual queda fijado a su portador y los demás
+     * que piden la misma clave también. En modo asíncrono solo se registra un CompletableFuture bajo el monitor,
+     * la carga corre en el ejecutor de tareas de la aplicación (también virtual) y quienes esperan se estacionan
+     * en el future sin bloquear portadores.
+     * Cada carga lleva el contexto de la solicitud que la pidió (ContextoSolicitudDecorator): sin él,
+     * la lectura de una solicitud que acaba de escribir podría ir a la réplica y quedar en caché desactualizada.
+     *
+     * @param cacheProperties propiedades spring.cache, de donde se toma la especificación de Caffeine.
+     * @param ejecutor ejecutor de tareas de la aplicación, basado en hilos virtuales en este modo.
+     * @return personalizador del CaffeineCacheManager.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public CacheManagerCustomizer<CaffeineCacheManager> cacheAsincronaConHilosVirtuales(CacheProperties cacheProperties,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor ejecutor) {
+        return cacheManager -> {
+            String spec = cacheProperties.getCaffeine().getSpec();
+            Caffeine<Object, Object> caffeine = spec != null ? Caffeine.from(spec) : Caffeine.newBuilder();
+            TaskDecorator contexto = new ContextoSolicitudDecorator();
+            cacheManager.setCaffeine(caffeine.executor(tarea -> ejecutor.execute(contexto.decorate(tarea))));
+            cacheManager.setAsyncCacheMode(true);
+        };
+    }
+}
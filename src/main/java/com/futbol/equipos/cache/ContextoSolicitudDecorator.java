@@ -0,0 +1,49 @@
+package com.futbol.equipos.cache;
+
+import java.util.Map;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Lleva al hilo que ejecuta una tarea el contexto del hilo que la envió: atributos de la solicitud,
+ * SecurityContext y MDC. Al terminar restaura el contexto que tenía el hilo.
+ * Lo usan las cargas de la caché asíncrona, que se resuelven en otro hilo mientras la solicitud espera:
+ * sin los atributos de la solicitud, RuteoDataSource no sabe que la solicitud ya escribió y lee de la réplica.
+ */
+class ContextoSolicitudDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable tarea) {
+        RequestAttributes solicitud = RequestContextHolder.getRequestAttributes();
+        SecurityContext seguridad = SecurityContextHolder.getContext();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return () -> {
+            RequestAttributes solicitudAnterior = RequestContextHolder.getRequestAttributes();
+            SecurityContext seguridadAnterior = SecurityContextHolder.getContext();
+            Map<String, String> mdcAnterior = MDC.getCopyOfContextMap();
+            RequestContextHolder.setRequestAttributes(solicitud);
+            SecurityContextHolder.setContext(seguridad);
+            restaurarMdc(mdc);
+            try {
+                tarea.run();
+            } finally {
+                RequestContextHolder.setRequestAttributes(solicitudAnterior);
+                SecurityContextHolder.setContext(seguridadAnterior);
+                restaurarMdc(mdcAnterior);
+            }
+        };
+    }
+
+    private static void restaurarMdc(Map<String, String> mdc) {
+        if (mdc == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(mdc);
+        }
+    }
+}
@@ -1,17 +1,46 @@
 package com.futbol.equipos.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.futbol.equipos.entity.Equipo;
+import com.futbol.equipos.escritura.CreacionDiferida;
+import com.futbol.equipos.evento.ContadorCambios;
+import com.futbol.equipos.evento.FlujoCambios;
+import com.futbol.equipos.exception.CustomizableException;
+import com.futbol.equipos.formato.Representacion;
+import com.futbol.equipos.importacion.ImportadorCsv;
 import com.futbol.equipos.request.EquipoRequest;
+import com.futbol.equipos.request.OperacionBulk;
+import com.futbol.equipos.response.EquipoPorId;
+import com.futbol.equipos.response.EquipoResponse;
+import com.futbol.equipos.response.EstadoCreacion;
+import com.futbol.equipos.response.FacetasEquipos;
+import com.futbol.equipos.response.PaginaEquipos;
+import com.futbol.equipos.response.ResultadoBulk;
+import com.futbol.equipos.response.ResumenImportacion;
 import com.futbol.equipos.service.EquipoService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
@@ -21,37 +50,138 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 @RequestMapping("/equipos")
 public class EquipoController {
 
+    /* Cantidad de líneas escritas entre cada flush de la exportación */
+    private static final int LINEAS_POR_FLUSH = 100;
+
     private final EquipoService equipoService;
 
-    public EquipoController(EquipoService equipoService) {
+    private final ObjectMapper objectMapper;
+
+    private final ContadorCambios contadorCambios;
+
+    private final CreacionDiferida creacionDiferida;
+
+    private final ImportadorCsv importadorCsv;
+
+    private final FlujoCambios flujoCambios;
+
+    public EquipoController(EquipoService equipoService, ObjectMapper objectMapper, ContadorCambios contadorCambios,
+            CreacionDiferida creacionDiferida, ImportadorCsv importadorCsv, FlujoCambios flujoCambios) {
         this.equipoService = equipoService;
+        this.objectMapper = objectMapper;
+        this.contadorCambios = contadorCambios;
+        this.creacionDiferida = creacionDiferida;
+        this.importadorCsv = importadorCsv;
+        this.flujoCambios = flujoCambios;
     }
 
     /**
-     * Obtiene una lista de todos los equipos registrados.
+     * Obtiene los equipos registrados paginados por cursor, opcionalmente filtrados por liga y/o país.
+     * Si se indica all=true devuelve la lista completa sin paginar, y si se indica ids devuelve esos
+     * equipos en el orden pedido, marcando los que no existen (ver {@link #postEquiposPorIds}).
+     * La respuesta lleva un ETag basado en el contador de cambios de la tabla y en el formato pedido en Accept;
+     * si el cliente envía ese mismo ETag en If-None-Match se responde 304 sin consultar la base de datos.
      *
-     * @return Lista de equipos en formato JSON.
+     * @param ids IDs separados por coma.
+     * @param after Cursor opaco devuelto por la página anterior.
+     * @param limit Cantidad máxima de equipos por página.
+     * @param sort Campo de orden: id, nombre, liga o pais.
+     * @param all Si es true devuelve todos los equipos en una única lista.
+     * @param liga Liga exacta de los equipos a devolver.
+     * @param pais País exacto de los equipos a devolver.
+     * @param webRequest Solicitud actual, usada para evaluar If-None-Match.
+     * @return Página de equipos en formato JSON, la lista completa si se pidió all=true, o un resultado por ID si se pidió ids.
      */
-    @Operation(summary = "Obtener todos los equipos", description = "Devuelve una lista de todos los equipos registrados.")
-    @ApiResponse(responseCode = "200", description = "Lista de equipos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Equipo.class)))
+    @Operation(summary = "Obtener equipos", description = "Devuelve los equipos registrados paginados por cursor, opcionalmente filtrados por liga y/o país. Con all=true devuelve la lista completa. Con ids=1,2,3 devuelve un resultado por ID, en el mismo orden, con encontrado=false para los que no existen.")
+    @ApiResponse(responseCode = "200", description = "Página de equipos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PaginaEquipos.class)))
+    @ApiResponse(responseCode = "304", description = "Los equipos no cambiaron desde el ETag indicado")
+    @ApiResponse(responseCode = "400", description = "Cursor, límite, orden o IDs inválidos")
     @GetMapping
-    public List<Equipo> getAllEquipos() {
-        return equipoService.findAll();
+    public ResponseEntity<?> getAllEquipos(
+            @Parameter(description = "IDs de los equipos a obtener, separados por coma", example = "1,2,3") @RequestParam(required = false) String ids,
+            @Parameter(description = "Cursor de la página siguiente") @RequestParam(required = false) String after,
+            @Parameter(description = "Cantidad máxima de equipos por página", example = "20") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Campo de orden", example = "nombre") @RequestParam(defaultValue = "id") String sort,
+            @Parameter(description = "Devolver todos los equipos sin paginar") @RequestParam(defaultValue = "false") boolean all,
+            @Parameter(description = "Filtrar por liga", example = "La Liga") @RequestParam(required = false) String liga,
+            @Parameter(description = "Filtrar por país", example = "España") @RequestParam(required = false) String pais,
+            WebRequest webRequest) {
+        String etag = Representacion.etag(contadorCambios.etag(), webRequest);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        if (ids != null) {
+            return ResponseEntity.ok().eTag(etag).body(equipoService.findAllById(parsearIds(ids)));
+        }
+        if (all) {
+            boolean filtrado = liga != null || pais != null;
+            return ResponseEntity.ok().eTag(etag).body(filtrado ? equipoService.findAllFiltrados(liga, pais) : equipoService.findAll());
+        }
+        return ResponseEntity.ok().eTag(etag).body(equipoService.findPagina(after, limit, sort, liga, pais));
+    }
+
+    /**
+     * Exporta todos los equipos como JSON delimitado por saltos de línea (NDJSON).
+     * Los equipos se leen con un cursor y se escriben a medida que llegan, haciendo flush
+     * cada {@value #LINEAS_POR_FLUSH} líneas, sin armar la lista completa en memoria.
+     *
+     * @return Cuerpo de respuesta que escribe un equipo por línea.
+     */
+    @Operation(summary = "Exportar todos los equipos", description = "Devuelve todos los equipos en formato NDJSON, un equipo por línea.")
+    @ApiResponse(responseCode = "200", description = "Equipos exportados", content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = Equipo.class)))
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarEquipos() {
+        StreamingResponseBody cuerpo = salida -> {
+            try {
+                exportarNdjson(salida);
+            } catch (UncheckedIOException e) {
+                // el cliente cortó la conexión: el cursor ya fue cerrado por el servicio
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(new MediaType(MediaType.APPLICATION_NDJSON, StandardCharsets.UTF_8)).body(cuerpo);
+    }
+
+    /**
+     * Emite por Server-Sent Events los equipos creados, actualizados y eliminados a medida que se confirman.
+     * Cada evento lleva un ID; al reconectarse con Last-Event-ID se reenvían los eventos perdidos, o un
+     * evento "reinicio" si ya no están disponibles y hay que volver a leer los equipos.
+     *
+     * @param ultimoEvento ID del último evento recibido, enviado por el cliente al reconectarse.
+     * @return El emisor SSE de la suscripción.
+     */
+    @Operation(summary = "Suscribirse a los cambios de equipos", description = "Emite por Server-Sent Events los eventos creado, actualizado, actualizado_parcial y eliminado. Con Last-Event-ID se reenvían los eventos perdidos.")
+    @ApiResponse(responseCode = "200", description = "Flujo de eventos", content = @Content(mediaType = "text/event-stream", schema = @Schema(implementation = EquipoResponse.class)))
+    @ApiResponse(responseCode = "503", description = "Se alcanzó el máximo de suscriptores")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEquipos(
+            @Parameter(description = "ID del último evento recibido") @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEvento) {
+        return flujoCambios.suscribir(ultimoEvento);
     }
 
     /**
      * Obtiene un equipo específico según su ID.
      *
+     * La respuesta lleva un ETag derivado de la versión del equipo y del formato pedido en Accept;
+     * si coincide con If-None-Match se responde 304 sin serializar el equipo.
+     *
      * @param id ID del equipo a buscar.
+     * @param webRequest Solicitud actual, usada para evaluar If-None-Match.
      * @return El equipo encontrado o un error 404 si no existe.
      */
     @Operation(summary = "Obtener un equipo por ID", description = "Devuelve un equipo según su ID.")
     @ApiResponse(responseCode = "200", description = "Equipo encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Equipo.class)))
+    @ApiResponse(responseCode = "304", description = "El equipo no cambió desde el ETag indicado")
     @ApiResponse(responseCode = "404", description = "Equipo no encontrado")
     @GetMapping("/{id}")
-    public ResponseEntity<?> getEquipoById(@Parameter(description = "ID del equipo", example = "1") @PathVariable Long id) {
+    public ResponseEntity<?> getEquipoById(@Parameter(description = "ID del equipo", example = "1") @PathVariable Long id,
+            WebRequest webRequest) {
         Equipo equipo = equipoService.findById(id);
-        return ResponseEntity.ok(equipo);
+        String etag = Representacion.etag(etagDe(equipo), webRequest);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(equipo);
     }
 
     /**
@@ -61,50 +191,184 @@ public class EquipoController {
      * @return Lista de equipos encontrados o un error 404 si no se encuentran coincidencias.
      */
     @Operation(summary = "Buscar equipos por nombre", description = "Busca equipos cuyo nombre contenga el texto proporcionado.")
-    @ApiResponse(responseCode = "200", description = "Equipos encontrados", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Equipo.class)))
+    @ApiResponse(responseCode = "200", description = "Equipos encontrados", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = EquipoResponse.class))))
     @ApiResponse(responseCode = "404", description = "No se encontraron equipos con ese nombre")
     @GetMapping("/buscar")
     public ResponseEntity<?> buscarEquiposPorNombre(
             @Parameter(description = "Nombre parcial o completo del equipo", example = "Real") @RequestParam String nombre) {
-        List<Equipo> equipos = equipoService.findAllByNombreContaining(nombre);
+        List<EquipoResponse> equipos = equipoService.findAllByNombreContaining(nombre);
         
         return ResponseEntity.ok(equipos);
     }
 
+    /**
+     * Obtiene la cantidad de equipos por liga y por país.
+     * Las cantidades se mantienen en memoria, por lo que no se recorre la tabla en cada solicitud.
+     *
+     * @return Cantidad de equipos por liga y por país.
+     */
+    @Operation(summary = "Obtener facetas", description = "Devuelve la cantidad de equipos por liga y por país.")
+    @ApiResponse(responseCode = "200", description = "Facetas de equipos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = FacetasEquipos.class)))
+    @GetMapping("/facets")
+    public ResponseEntity<FacetasEquipos> getFacetas() {
+        return ResponseEntity.ok(equipoService.findFacetas());
+    }
+
     /**
      * Crea un nuevo equipo con los datos proporcionados.
+     * Con async=true el equipo se valida y se encola para persistirlo en segundo plano: se responde 202
+     * con un ID de seguimiento, cuyo estado se consulta en /equipos/async/{seguimiento}.
      *
      * @param equipoRequest Objeto que contiene los datos del equipo a crear.
-     * @return El equipo creado con un estado HTTP 201.
+     * @param async Si es true la creación se encola en lugar de esperar a la base de datos.
+     * @param webRequest Solicitud actual, usada para elegir el ETag según el formato pedido.
+     * @return El equipo creado con un estado HTTP 201, o el estado de la creación encolada con un 202.
      */
-    @Operation(summary = "Crear un nuevo equipo", description = "Crea un equipo nuevo con los datos proporcionados.")
+    @Operation(summary = "Crear un nuevo equipo", description = "Crea un equipo nuevo con los datos proporcionados. Con async=true lo encola y responde 202 con un ID de seguimiento.")
     @ApiResponse(responseCode = "201", description = "Equipo creado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Equipo.class)))
+    @ApiResponse(responseCode = "202", description = "Creación encolada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = EstadoCreacion.class)))
+    @ApiResponse(responseCode = "429", description = "Demasiadas creaciones pendientes")
     @RequestBody(description = "Datos del equipo a crear", required = true, content = @Content(mediaType = "application/json", schema = @Schema(implementation = EquipoRequest.class)))
     @PostMapping
-    public ResponseEntity<?> createEquipo(@org.springframework.web.bind.annotation.RequestBody EquipoRequest equipoRequest) {
+    public ResponseEntity<?> createEquipo(@org.springframework.web.bind.annotation.RequestBody EquipoRequest equipoRequest,
+            @Parameter(description = "Encolar la creación y responder sin esperar a la base de datos") @RequestParam(defaultValue = "false") boolean async,
+            WebRequest webRequest) {
         equipoService.validarRequest(equipoRequest);
+        if (async) {
+            EstadoCreacion estado = creacionDiferida.encolar(equipoRequest);
+            return ResponseEntity.accepted().location(URI.create("/equipos/async/" + estado.getSeguimiento())).body(estado);
+        }
         Equipo savedEquipo = equipoService.save(convertirRequestAEquipo(equipoRequest));
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedEquipo);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(Representacion.etag(etagDe(savedEquipo), webRequest)).body(savedEquipo);
+    }
+
+    /**
+     * Obtiene el estado de una creación encolada con POST /equipos?async=true.
+     *
+     * @param seguimiento ID de seguimiento devuelto al encolar la creación.
+     * @return El estado de la creación y, una vez persistido, el ID asignado al equipo.
+     */
+    @Operation(summary = "Consultar una creación asíncrona", description = "Indica si un equipo encolado ya fue persistido y con qué ID.")
+    @ApiResponse(responseCode = "200", description = "Estado de la creación", content = @Content(mediaType = "application/json", schema = @Schema(implementation = EstadoCreacion.class)))
+    @ApiResponse(responseCode = "404", description = "ID de seguimiento desconocido o vencido")
+    @GetMapping("/async/{seguimiento}")
+    public ResponseEntity<EstadoCreacion> getEstadoCreacion(
+            @Parameter(description = "ID de seguimiento de la creación") @PathVariable String seguimiento) {
+        return ResponseEntity.ok(creacionDiferida.obtener(seguimiento));
+    }
+
+    /**
+     * Aplica en una sola llamada una lista mixta de creaciones, actualizaciones y eliminaciones.
+     * Cada operación se valida por separado y el resultado se informa por posición,
+     * por lo que una operación inválida no impide aplicar las demás.
+     *
+     * @param operaciones Lista de operaciones a aplicar.
+     * @return El resultado de cada operación, en el mismo orden de la solicitud.
+     */
+    @Operation(summary = "Aplicar operaciones bulk", description = "Crea, actualiza y elimina equipos en lotes, devolviendo el resultado de cada operación.")
+    @ApiResponse(responseCode = "200", description = "Resultados por operación", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = ResultadoBulk.class))))
+    @ApiResponse(responseCode = "400", description = "Lista de operaciones vacía o demasiado grande")
+    @RequestBody(description = "Operaciones a aplicar", required = true, content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = OperacionBulk.class))))
+    @PostMapping("/_bulk")
+    public ResponseEntity<?> bulkEquipos(@org.springframework.web.bind.annotation.RequestBody List<OperacionBulk> operaciones) {
+        return ResponseEntity.ok(equipoService.aplicarBulk(operaciones));
+    }
+
+    /**
+     * Obtiene varios equipos por ID; es la variante de GET /equipos?ids= para listas que no entran en la URL.
+     * Los IDs se resuelven con consultas IN por bloques en lugar de una consulta por equipo, y los que no
+     * existen se devuelven con encontrado=false en lugar de hacer fallar la solicitud completa.
+     *
+     * @param ids IDs de los equipos a obtener.
+     * @return Un resultado por cada ID pedido, en el mismo orden.
+     */
+    @Operation(summary = "Obtener varios equipos por ID", description = "Devuelve un resultado por ID, en el mismo orden, con encontrado=false para los que no existen.")
+    @ApiResponse(responseCode = "200", description = "Resultado por ID", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = EquipoPorId.class))))
+    @ApiResponse(responseCode = "400", description = "Lista de IDs vacía, demasiado grande o con IDs nulos")
+    @RequestBody(description = "IDs a obtener", required = true, content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(type = "integer", format = "int64", example = "1"))))
+    @PostMapping("/_mget")
+    public ResponseEntity<List<EquipoPorId>> postEquiposPorIds(@org.springframework.web.bind.annotation.RequestBody List<Long> ids) {
+        return ResponseEntity.ok(equipoService.findAllById(ids));
+    }
+
+    /**
+     * Importa equipos desde un archivo CSV (UTF-8) con encabezado nombre,liga,pais.
+     * El cuerpo se procesa a medida que llega y las filas válidas se crean en bloques confirmados por
+     * separado, por lo que un bloque fallido no deshace los anteriores ni el archivo se carga completo en memoria.
+     *
+     * @param cuerpo Contenido del archivo CSV.
+     * @return La cantidad de filas creadas y rechazadas, con la línea y el motivo de cada rechazo.
+     * @throws IOException Si no se puede leer el cuerpo de la solicitud.
+     */
+    @Operation(summary = "Importar equipos desde CSV", description = "Crea los equipos de un CSV con encabezado nombre,liga,pais y devuelve un resumen con las filas rechazadas.")
+    @ApiResponse(responseCode = "200", description = "Resumen de la importación", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResumenImportacion.class)))
+    @ApiResponse(responseCode = "400", description = "Archivo vacío o encabezado sin las columnas nombre, liga y pais")
+    @RequestBody(description = "Archivo CSV", required = true, content = @Content(mediaType = "text/csv", schema = @Schema(type = "string", example = "nombre,liga,pais\nDux Fc,Primera Division,Argentina")))
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ResumenImportacion> importarEquipos(InputStream cuerpo) throws IOException {
+        return ResponseEntity.ok(importadorCsv.importar(cuerpo));
     }
 
     /**
      * Actualiza los datos de un equipo existente basado en su ID.
+     * Si se envía If-Match, la actualización solo se aplica cuando el ETag coincide con la
+     * versión actual del equipo; de lo contrario se responde 412.
      *
      * @param id ID del equipo a actualizar.
      * @param equipoRequest Datos actualizados del equipo.
+     * @param ifMatch ETag de la versión del equipo que el cliente leyó.
+     * @param webRequest Solicitud actual, usada para elegir el ETag según el formato pedido.
      * @return El equipo actualizado o un error 404 si no existe.
      */
     @Operation(summary = "Actualizar un equipo por ID", description = "Actualiza los datos de un equipo existente.")
     @ApiResponse(responseCode = "200", description = "Equipo actualizado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Equipo.class)))
     @ApiResponse(responseCode = "404", description = "Equipo no encontrado")
+    @ApiResponse(responseCode = "412", description = "El equipo fue modificado desde el ETag indicado")
     @PutMapping("/{id}")
     public ResponseEntity<?> updateEquipo(
             @Parameter(description = "ID del equipo", example = "1") @PathVariable Long id, 
-            @org.springframework.web.bind.annotation.RequestBody EquipoRequest equipoRequest) {
+            @org.springframework.web.bind.annotation.RequestBody EquipoRequest equipoRequest,
+            @Parameter(description = "ETag de la versión esperada del equipo") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            WebRequest webRequest) {
+
+        Equipo equipoActualizado = ifMatch == null
+                ? equipoService.updateEquipo(id, equipoRequest)
+                : equipoService.updateEquipo(id, equipoRequest, versionEsperada(id, ifMatch));
+
+        return ResponseEntity.ok().eTag(Representacion.etag(etagDe(equipoActualizado), webRequest)).body(equipoActualizado);
+    }
+
+    /**
+     * Actualiza solo los campos enviados de un equipo, con un único UPDATE y sin leerlo antes.
+     * Como el equipo no se lee, se responde 204 sin cuerpo; si se envió If-Match con un ETag
+     * del equipo, la respuesta lleva el ETag de la nueva versión.
+     *
+     * @param id ID del equipo a actualizar.
+     * @param cambios Campos a modificar; los omitidos se conservan.
+     * @param ifMatch ETag de la versión del equipo que el cliente leyó.
+     * @param webRequest Solicitud actual, usada para elegir el ETag según el formato pedido.
+     * @return Respuesta sin contenido, o un error 404 si el equipo no existe.
+     */
+    @Operation(summary = "Actualizar parcialmente un equipo por ID", description = "Modifica solo los campos enviados de un equipo existente.")
+    @ApiResponse(responseCode = "204", description = "Equipo actualizado")
+    @ApiResponse(responseCode = "400", description = "No se envió ningún campo o alguno está vacío")
+    @ApiResponse(responseCode = "404", description = "Equipo no encontrado")
+    @ApiResponse(responseCode = "412", description = "El equipo fue modificado desde el ETag indicado")
+    @RequestBody(description = "Campos a modificar", required = true, content = @Content(mediaType = "application/json", schema = @Schema(implementation = EquipoRequest.class)))
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchEquipo(
+            @Parameter(description = "ID del equipo", example = "1") @PathVariable Long id,
+            @org.springframework.web.bind.annotation.RequestBody EquipoRequest cambios,
+            @Parameter(description = "ETag de la versión esperada del equipo") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            WebRequest webRequest) {
 
-        Equipo equipoActualizado = equipoService.updateEquipo(id, equipoRequest);
+        Long versionEsperada = ifMatch == null ? null : versionEsperada(id, ifMatch);
+        equipoService.actualizarParcial(id, cambios, versionEsperada);
 
-        return ResponseEntity.ok(equipoActualizado);
+        if (versionEsperada == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.noContent().eTag(Representacion.etag(etagDe(id, versionEsperada + 1), webRequest)).build();
     }
 
     /**
@@ -122,6 +386,106 @@ public class EquipoController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Escribe cada equipo como una línea JSON en la salida, haciendo flush por bloques.
+     *
+     * @param salida Stream de salida de la respuesta HTTP.
+     */
+    private void exportarNdjson(OutputStream salida) throws IOException {
+        int[] lineas = {0};
+        equipoService.recorrerTodos(equipo -> {
+            try {
+                salida.write(objectMapper.writeValueAsBytes(equipo));
+                salida.write('\n');
+                if (++lineas[0] % LINEAS_POR_FLUSH == 0) {
+                    salida.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        salida.flush();
+    }
+
+    /**
+     * Genera el ETag fuerte de un equipo a partir de su ID y su versión.
+     *
+     * @param equipo El equipo.
+     * @return El ETag entre comillas.
+     */
+    private static String etagDe(Equipo equipo) {
+        return etagDe(equipo.getId(), equipo.getVersion());
+    }
+
+    /**
+     * Genera el ETag fuerte de una versión de un equipo, sin necesidad de leerlo.
+     *
+     * @param id ID del equipo.
+     * @param version Versión del equipo.
+     * @return El ETag entre comillas.
+     */
+    private static String etagDe(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Convierte la lista de IDs separados por coma del parámetro ids.
+     *
+     * @param ids Valor del parámetro, por ejemplo "1,2,3".
+     * @return Los IDs en el orden recibido.
+     * @throws CustomizableException Si algún ID no es un número (400).
+     */
+    private static List<Long> parsearIds(String ids) {
+        List<Long> resultado = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            try {
+                resultado.add(Long.valueOf(id.trim()));
+            } catch (NumberFormatException e) {
+                throw new CustomizableException("ID invalido: " + id.trim(), 400);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene la versión esperada a partir del encabezado If-Match.
+     * Con "*" se acepta cualquier versión; los ETags débiles o de otro equipo no coinciden nunca.
+     * Un ETag de la versión en otro formato (CBOR o Smile) identifica la misma versión.
+     *
+     * @param id ID del equipo a actualizar.
+     * @param ifMatch Valor del encabezado If-Match.
+     * @return La versión esperada, o null si se acepta cualquiera.
+     * @throws CustomizableException Si ningún ETag puede coincidir con el equipo (412).
+     */
+    private Long versionEsperada(Long id, String ifMatch) {
+        if (ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        List<Long> versiones = new ArrayList<>();
+        String prefijo = "\"" + id + "-";
+        for (String etag : ifMatch.split(",")) {
+            String valor = Representacion.sinFormato(etag.trim());
+            if (valor.startsWith(prefijo) && valor.endsWith("\"")) {
+                try {
+                    versiones.add(Long.valueOf(valor.substring(prefijo.length(), valor.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // ETag con formato inválido: no coincide
+                }
+            }
+        }
+
+        if (versiones.isEmpty()) {
+            throw new CustomizableException("El equipo fue modificado por otra solicitud", 412);
+        }
+        if (versiones.size() > 1) {
+            // con varios ETags alcanza con que uno coincida con la versión actual
+            Long actual = equipoService.findById(id).getVersion();
+            return versiones.contains(actual) ? actual : versiones.get(0);
+        }
+        return versiones.get(0);
+    }
+
     /**
      * Convierte un objeto EquipoRequest en un objeto Equipo.
      *
@@ -1,20 +1,30 @@
 package com.futbol.equipos.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Schema(description = "Entidad que representa un equipo de fútbol")
 @Entity
-@Table(name = "equipos")
+@Table(name = "equipos", indexes = {
+    @Index(name = "idx_equipos_liga", columnList = "liga"),
+    @Index(name = "idx_equipos_pais", columnList = "pais"),
+    @Index(name = "idx_equipos_pais_liga", columnList = "pais, liga")
+})
 public class Equipo {
 
     @Schema(description = "ID único del equipo", example = "1")
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "equipos_seq")
+    @SequenceGenerator(name = "equipos_seq", sequenceName = "equipos_seq", allocationSize = 50)
     private Long id;
 
     @Schema(description = "Nombre del equipo", example = "Real Madrid")
@@ -26,6 +36,12 @@ public class Equipo {
     @Schema(description = "País del equipo", example = "España")
     private String pais;
 
+    /* Versión para control de concurrencia optimista; se expone como ETag, no en el cuerpo */
+    @Schema(hidden = true)
+    @JsonIgnore
+    @Version
+    private Long version;
+
     public Equipo() {}
 
     public Equipo(Long id, String nombre, String liga, String pais) {
@@ -72,4 +88,12 @@ public class Equipo {
     public void setPais(String pais) {
         this.pais = pais;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,238 @@
+package com.futbol.equipos.escritura;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.futbol.equipos.exception.CustomizableException;
+import com.futbol.equipos.request.EquipoRequest;
+import com.futbol.equipos.request.OperacionBulk;
+import com.futbol.equipos.response.EstadoCreacion;
+import com.futbol.equipos.response.ResultadoBulk;
+import com.futbol.equipos.service.EquipoService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Creación de equipos en modo diferido (write-behind), usada por POST /equipos?async=true.
+ * Los equipos ya validados se encolan en una cola acotada y la solicitud responde sin esperar a la base;
+ * un único hilo escritor vacía la cola en grupos y los persiste con EquipoService.aplicarBulk, que los
+ * inserta en batches JDBC con una transacción por lote. Si la cola está llena la creación se rechaza con 429.
+ * Al detener la aplicación se dejan de aceptar creaciones y se persiste todo lo encolado antes de cerrar la base.
+ * Los estados se conservan durante la retención y hasta un máximo de entradas (equipos.async.estados-maximos);
+ * al superarlo Caffeine descarta algunos antes de tiempo y su consulta responde 404, igual que un ID desconocido
+ * o vencido. Si el descartado estaba pendiente, vuelve a poder consultarse cuando el escritor lo persiste.
+ */
+@Component
+public class CreacionDiferida implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CreacionDiferida.class);
+
+    /* Se detiene después del cierre ordenado y de la detención del servidor web, cuando ya no pueden llegar creaciones nuevas */
+    private static final int FASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+    /* Cada cuánto revisa el escritor si debe terminar mientras la cola está vacía */
+    private static final long ESPERA_COLA_MILIS = 100;
+
+    private final EquipoService equipoService;
+
+    private final BlockingQueue<Pendiente> cola;
+
+    private final int tamanioGrupo;
+
+    private final Duration esperaCierre;
+
+    /* ID de seguimiento -> estado; se conservan durante la retención configurada, hasta estados-maximos entradas */
+    private final Cache<String, EstadoCreacion> estados;
+
+    private volatile boolean aceptando;
+
+    private volatile boolean corriendo;
+
+    private Thread escritor;
+
+    /**
+     * Crea la cola de creaciones diferidas.
+     *
+     * @param equipoService Servicio con el que se persisten los grupos.
+     * @param meterRegistry Registro donde se publica el tamaño de la cola (equipos.async.pendientes).
+     * @param capacidad Cantidad máxima de creaciones encoladas (equipos.async.capacidad).
+     * @param tamanioGrupo Cantidad máxima de creaciones persistidas juntas (equipos.async.tamanio-grupo).
+     * @param retencion Tiempo durante el que se puede consultar el estado de una creación (equipos.async.retencion).
+     * @param estadosMaximos Cantidad máxima de estados conservados (equipos.async.estados-maximos); al menos la capacidad.
+     * @param esperaCierre Tiempo máximo que se espera a vaciar la cola al detener la aplicación (equipos.async.espera-cierre).
+     */
+    public CreacionDiferida(EquipoService equipoService, MeterRegistry meterRegistry,
+            @Value("${equipos.async.capacidad:10000}") int capacidad,
+            @Value("${equipos.async.tamanio-grupo:500}") int tamanioGrupo,
+            @Value("${equipos.async.retencion:1h}") Duration retencion,
+            @Value("${equipos.async.estados-maximos:100000}") long estadosMaximos,
+            @Value("${equipos.async.espera-cierre:30s}") Duration esperaCierre) {
+        if (tamanioGrupo < 1 || tamanioGrupo > EquipoService.MAXIMO_OPERACIONES_BULK) {
+            throw new IllegalArgumentException("equipos.async.tamanio-grupo debe estar entre 1 y " + EquipoService.MAXIMO_OPERACIONES_BULK);
+        }
+        if (estadosMaximos < capacidad) {
+            throw new IllegalArgumentException("equipos.async.estados-maximos no puede ser menor que equipos.async.capacidad");
+        }
+        this.equipoService = equipoService;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.tamanioGrupo = tamanioGrupo;
+        this.esperaCierre = esperaCierre;
+        this.estados = Caffeine.newBuilder().expireAfterWrite(retencion).maximumSize(estadosMaximos).build();
+        Gauge.builder("equipos.async.pendientes", cola, Collection::size)
+                .description("Creaciones de equipos encoladas que todavía no se persistieron")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Encola la creación de un equipo ya validado.
+     *
+     * @param equipoRequest Los datos del equipo a crear.
+     * @return El estado pendiente, con el ID de seguimiento de la creación.
+     * @throws CustomizableException Si la cola está llena (429) o la aplicación se está deteniendo (503).
+     */
+    public EstadoCreacion encolar(EquipoRequest equipoRequest) {
+        if (!aceptando) {
+            throw new CustomizableException("El servicio se esta deteniendo", 503);
+        }
+        EstadoCreacion pendiente = EstadoCreacion.pendiente(UUID.randomUUID().toString());
+        estados.put(pendiente.getSeguimiento(), pendiente);
+        if (!cola.offer(new Pendiente(pendiente.getSeguimiento(), equipoRequest))) {
+            estados.invalidate(pendiente.getSeguimiento());
+            throw new CustomizableException("Demasiadas creaciones pendientes, reintente mas tarde", 429);
+        }
+        return pendiente;
+    }
+
+    /**
+     * Obtiene el estado de una creación encolada.
+     *
+     * @param seguimiento ID de seguimiento devuelto al encolar.
+     * @return El estado actual de la creación.
+     * @throws CustomizableException Si el ID no existe o su estado ya no se conserva, por vencido o por exceder
+     *         equipos.async.estados-maximos (404).
+     */
+    public EstadoCreacion obtener(String seguimiento) {
+        EstadoCreacion estado = estados.getIfPresent(seguimiento);
+        if (estado == null) {
+            throw new CustomizableException("Seguimiento no encontrado.", 404);
+        }
+        return estado;
+    }
+
+    @Override
+    public void start() {
+        corriendo = true;
+        aceptando = true;
+        escritor = new Thread(this::escribir, "equipos-escritura-diferida");
+        escritor.start();
+    }
+
+    /**
+     * Deja de aceptar creaciones y espera a que el escritor persista todo lo encolado.
+     */
+    @Override
+    public void stop() {
+        aceptando = false;
+        corriendo = false;
+        try {
+            escritor.join(esperaCierre.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (escritor.isAlive() || !cola.isEmpty()) {
+            log.warn("Se detuvo la escritura diferida con {} creaciones sin persistir", cola.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return corriendo;
+    }
+
+    @Override
+    public int getPhase() {
+        return FASE;
+    }
+
+    /**
+     * Bucle del hilo escritor: toma lo que haya en la cola, hasta tamanioGrupo creaciones, y lo persiste junto.
+     * Al detenerse sigue hasta vaciar la cola.
+     */
+    private void escribir() {
+        List<Pendiente> grupo = new ArrayList<>(tamanioGrupo);
+        while (corriendo || !cola.isEmpty()) {
+            try {
+                Pendiente primero = cola.poll(ESPERA_COLA_MILIS, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                grupo.add(primero);
+                cola.drainTo(grupo, tamanioGrupo - 1);
+                persistir(grupo);
+            } catch (InterruptedException e) {
+                log.warn("Se interrumpió la escritura diferida con {} creaciones sin persistir", cola.size());
+                return;
+            } finally {
+                grupo.clear();
+            }
+        }
+    }
+
+    /**
+     * Persiste un grupo de creaciones y registra el resultado de cada una.
+     */
+    private void persistir(List<Pendiente> grupo) {
+        List<OperacionBulk> operaciones = new ArrayList<>(grupo.size());
+        for (Pendiente pendiente : grupo) {
+            operaciones.add(new OperacionBulk("crear", null, pendiente.equipo));
+        }
+
+        List<ResultadoBulk> resultados;
+        try {
+            resultados = equipoService.aplicarBulk(operaciones);
+        } catch (RuntimeException e) {
+            log.error("No se pudo persistir un grupo de {} equipos", grupo.size(), e);
+            for (Pendiente pendiente : grupo) {
+                estados.put(pendiente.seguimiento, EstadoCreacion.error(pendiente.seguimiento, "No se pudo persistir el equipo"));
+            }
+            return;
+        }
+
+        for (int i = 0; i < grupo.size(); i++) {
+            String seguimiento = grupo.get(i).seguimiento;
+            ResultadoBulk resultado = resultados.get(i);
+            estados.put(seguimiento, resultado.getCodigo() == 201
+                    ? EstadoCreacion.persistido(seguimiento, resultado.getId())
+                    : EstadoCreacion.error(seguimiento, resultado.getMensaje()));
+        }
+    }
+
+    /* Creación encolada junto con su ID de seguimiento */
+    private static final class Pendiente {
+
+        private final String seguimiento;
+
+        private final EquipoRequest equipo;
+
+        private Pendiente(String seguimiento, EquipoRequest equipo) {
+            this.seguimiento = seguimiento;
+            this.equipo = equipo;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.futbol.equipos.esquema;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reemplaza la inicialización de spring.sql.init por una que omite script.sql cuando el esquema ya está al día.
+ * Con equipos.esquema.verificar=false se vuelve a la de Spring Boot, que ejecuta el script (y recarga los datos
+ * iniciales) en cada arranque. Con shards (equipos.shards.urls) cada uno se inicializa en InicializadorShards.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlInitializationProperties.class)
+public class EsquemaConfig {
+
+    @Bean
+    @ConditionalOnExpression("${equipos.esquema.verificar:true} and '${equipos.shards.urls:}'.isEmpty()")
+    public InicializadorEsquema inicializadorEsquema(DataSource dataSource, SqlInitializationProperties propiedades) {
+        return new InicializadorEsquema(dataSource, propiedades);
+    }
+}
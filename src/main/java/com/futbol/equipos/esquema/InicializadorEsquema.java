@@ -0,0 +1,117 @@
+package com.futbol.equipos.esquema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Ejecuta los scripts de spring.sql.init (script.sql) solo si cambiaron desde la última vez que se aplicaron.
+ * El checksum SHA-256 de los scripts queda guardado en la tabla esquema_version; si coincide con el actual
+ * se omite el script, que borra y vuelve a crear la tabla de equipos con los datos iniciales. Así un reinicio
+ * no pierde los equipos cargados ni repite ese trabajo.
+ */
+public class InicializadorEsquema extends SqlDataSourceScriptDatabaseInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(InicializadorEsquema.class);
+
+    private static final String OPCIONAL = "optional:";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final List<String> ubicaciones = new ArrayList<>();
+
+    private final ResourcePatternResolver recursos = new PathMatchingResourcePatternResolver();
+
+    /**
+     * @param dataSource Base de datos a inicializar.
+     * @param propiedades Configuración spring.sql.init, con los scripts a ejecutar.
+     */
+    public InicializadorEsquema(DataSource dataSource, SqlInitializationProperties propiedades) {
+        super(dataSource, propiedades);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        DatabaseInitializationSettings settings = getSettings(propiedades);
+        if (settings.getSchemaLocations() != null) {
+            ubicaciones.addAll(settings.getSchemaLocations());
+        }
+        if (settings.getDataLocations() != null) {
+            ubicaciones.addAll(settings.getDataLocations());
+        }
+    }
+
+    /**
+     * Ejecuta los scripts si su checksum no coincide con el último aplicado y registra el nuevo.
+     *
+     * @return true si se ejecutaron los scripts.
+     */
+    @Override
+    public boolean initializeDatabase() {
+        String checksum = checksum();
+        if (checksum.equals(checksumAplicado())) {
+            log.info("El esquema ya está al día (checksum {}), se omite la inicialización", checksum.substring(0, 12));
+            return false;
+        }
+        boolean inicializada = super.initializeDatabase();
+        if (inicializada) {
+            registrar(checksum);
+            log.info("Esquema inicializado (checksum {})", checksum.substring(0, 12));
+        }
+        return inicializada;
+    }
+
+    /**
+     * Calcula el SHA-256 del contenido de los scripts, en el orden en que se ejecutan.
+     */
+    private String checksum() {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            for (String ubicacion : ubicaciones) {
+                String patron = ubicacion.startsWith(OPCIONAL) ? ubicacion.substring(OPCIONAL.length()) : ubicacion;
+                for (Resource recurso : recursos.getResources(patron)) {
+                    if (recurso.exists()) {
+                        sha256.update(recurso.getContentAsByteArray());
+                    }
+                }
+            }
+            return HexFormat.of().formatHex(sha256.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron leer los scripts de inicialización", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Obtiene el checksum de los últimos scripts aplicados, o null si nunca se aplicaron.
+     */
+    private String checksumAplicado() {
+        try {
+            return jdbcTemplate.query("SELECT checksum FROM esquema_version", resultado -> resultado.next() ? resultado.getString(1) : null);
+        } catch (DataAccessException e) {
+            // la tabla todavía no existe: base nueva o creada antes de versionar el esquema
+            return null;
+        }
+    }
+
+    private void registrar(String checksum) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS esquema_version (checksum VARCHAR(64) NOT NULL, aplicado TIMESTAMP NOT NULL)");
+        jdbcTemplate.update("DELETE FROM esquema_version");
+        jdbcTemplate.update("INSERT INTO esquema_version (checksum, aplicado) VALUES (?, CURRENT_TIMESTAMP)", checksum);
+    }
+}
@@ -0,0 +1,64 @@
+package com.futbol.equipos.evento;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.futbol.equipos.cache.CacheConfig;
+
+/**
+ * Contador de cambios a nivel de tabla sobre los equipos.
+ * Se incrementa con cada creación, actualización o eliminación confirmada y permite
+ * generar un ETag para las listas de equipos sin consultar la base de datos.
+ */
+@Component
+public class ContadorCambios {
+
+    /* Distingue los contadores de distintos arranques de la aplicación */
+    private final String arranque = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong cambios = new AtomicLong();
+
+    private final CacheManager cacheManager;
+
+    public ContadorCambios(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Descarta la lista en caché y recién después incrementa el contador.
+     * El @CacheEvict del servicio se ejecuta después de este listener (la caché envuelve a la transacción);
+     * si solo se incrementara el contador, una lectura en ese intervalo obtendría el ETag nuevo con la
+     * lista vieja y la guardaría en los clientes para siempre. Se descarta la clave y no toda la caché
+     * para que una carga en curso termine antes o no quede guardada.
+     * Se ejecuta antes que los demás listeners, que pueden avisar a clientes que vuelven a pedir la lista.
+     *
+     * @param cambio Cambio confirmado.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiar(EquipoCambio cambio) {
+        Cache todos = cacheManager.getCache(CacheConfig.CACHE_EQUIPOS_TODOS);
+        if (todos != null) {
+            todos.evict(CacheConfig.CLAVE_TODOS);
+        }
+        cambios.incrementAndGet();
+    }
+
+    /**
+     * Genera el ETag que representa el estado actual de la tabla de equipos.
+     * Es débil porque la misma lista puede enviarse con o sin gzip; un ETag fuerte impediría que el servidor
+     * comprima la respuesta. If-None-Match lo compara igual. El controlador le agrega el formato (Representacion).
+     * Debe obtenerse antes de leer los datos, para que nunca quede más nuevo que ellos.
+     *
+     * @return El ETag débil, entre comillas y con el prefijo W/.
+     */
+    public String etag() {
+        return "W/\"" + arranque + "-" + cambios.get() + "\"";
+    }
+}
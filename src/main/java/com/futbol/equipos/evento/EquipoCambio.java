@@ -0,0 +1,57 @@
+package com.futbol.equipos.evento;
+
+import com.futbol.equipos.entity.Equipo;
+
+/**
+ * Evento publicado por EquipoService cada vez que se crea, actualiza o elimina un equipo.
+ * Los listeners lo reciben una vez confirmada la transacción de la escritura.
+ * En una actualización parcial el equipo solo trae los campos modificados; el resto queda en null.
+ */
+public class EquipoCambio {
+
+    public enum Tipo { CREADO, ACTUALIZADO, ACTUALIZADO_PARCIAL, ELIMINADO }
+
+    private final Tipo tipo;
+    private final Long id;
+    private final Equipo equipo;
+
+    /**
+     * @param tipo Tipo de cambio realizado.
+     * @param id ID del equipo afectado.
+     * @param equipo Estado del equipo después del cambio (solo los campos modificados si fue parcial),
+     *        o null si fue eliminado.
+     */
+    public EquipoCambio(Tipo tipo, Long id, Equipo equipo) {
+        this.tipo = tipo;
+        this.id = id;
+        this.equipo = equipo;
+    }
+
+    public static EquipoCambio creado(Equipo equipo) {
+        return new EquipoCambio(Tipo.CREADO, equipo.getId(), equipo);
+    }
+
+    public static EquipoCambio actualizado(Equipo equipo) {
+        return new EquipoCambio(Tipo.ACTUALIZADO, equipo.getId(), equipo);
+    }
+
+    public static EquipoCambio actualizadoParcial(Long id, String nombre, String liga, String pais) {
+        return new EquipoCambio(Tipo.ACTUALIZADO_PARCIAL, id, new Equipo(id, nombre, liga, pais));
+    }
+
+    public static EquipoCambio eliminado(Long id) {
+        return new EquipoCambio(Tipo.ELIMINADO, id, null);
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Equipo getEquipo() {
+        return equipo;
+    }
+}
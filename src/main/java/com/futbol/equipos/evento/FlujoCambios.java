@@ -0,0 +1,352 @@
+package com.futbol.equipos.evento;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.futbol.equipos.entity.Equipo;
+import com.futbol.equipos.exception.CustomizableException;
+import com.futbol.equipos.response.EquipoResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Difunde los cambios confirmados sobre los equipos a los suscriptores de GET /equipos/stream (Server-Sent Events).
+ * Cada cambio se serializa una sola vez y se reparte a los suscriptores sin bloquear la transacción que lo produjo:
+ * cada suscriptor tiene un buffer acotado y, si no lo consume a tiempo, se lo desconecta.
+ * Los últimos eventos se guardan en un historial circular para que un cliente que se reconecta con
+ * Last-Event-ID reciba lo que se perdió sin recargar la lista completa.
+ */
+@Component
+public class FlujoCambios implements SmartLifecycle {
+
+    /* Evento enviado cuando no se pueden reenviar los cambios perdidos: el cliente debe recargar los equipos */
+    public static final String EVENTO_REINICIO = "reinicio";
+
+    /* Cantidad máxima de eventos escritos en cada envío a un suscriptor */
+    private static final int MAXIMO_LOTE = 256;
+
+    /* Comentario SSE enviado periódicamente para mantener viva la conexión y detectar clientes caídos */
+    private static final Evento LATIDO = new Evento(SseEmitter.event().comment("latido").build());
+
+    /* Distingue los IDs de eventos de distintos arranques de la aplicación */
+    private final String arranque = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ObjectMapper objectMapper;
+
+    /* Últimos eventos emitidos; el de secuencia s está en la posición s % largo */
+    private final Evento[] historial;
+
+    /* Secuencia del último evento emitido; se modifica con el lock de esta instancia */
+    private long ultimo;
+
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+
+    private final int tamanioBuffer;
+
+    private final int maximoSuscriptores;
+
+    private final Duration duracion;
+
+    private final Duration latido;
+
+    private final Counter desconexiones;
+
+    /* Envía los eventos a cada suscriptor; un cliente lento solo bloquea el hilo que le está escribiendo */
+    private final ExecutorService envios;
+
+    private final ScheduledExecutorService latidos;
+
+    private volatile boolean corriendo;
+
+    /**
+     * Crea el flujo de cambios.
+     *
+     * @param objectMapper Serializador de los equipos enviados en cada evento.
+     * @param meterRegistry Registro donde se publican los suscriptores (equipos.stream.suscriptores)
+     *        y las desconexiones por lentitud (equipos.stream.desconexiones).
+     * @param historial Cantidad de eventos recientes que se pueden reenviar al reconectarse (equipos.stream.historial).
+     * @param tamanioBuffer Cantidad máxima de eventos pendientes de envío por suscriptor (equipos.stream.buffer);
+     *        debe superar la cantidad de cambios de una sola transacción, como un bloque de la importación CSV.
+     * @param maximoSuscriptores Cantidad máxima de suscriptores simultáneos (equipos.stream.maximo-suscriptores).
+     * @param duracion Tiempo tras el que se cierra cada suscripción; el cliente se reconecta con Last-Event-ID (equipos.stream.duracion).
+     * @param latido Intervalo entre latidos enviados a cada suscriptor (equipos.stream.latido).
+     */
+    public FlujoCambios(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${equipos.stream.historial:1000}") int historial,
+            @Value("${equipos.stream.buffer:4096}") int tamanioBuffer,
+            @Value("${equipos.stream.maximo-suscriptores:1000}") int maximoSuscriptores,
+            @Value("${equipos.stream.duracion:30m}") Duration duracion,
+            @Value("${equipos.stream.latido:15s}") Duration latido) {
+        this.objectMapper = objectMapper;
+        this.historial = new Evento[historial];
+        this.tamanioBuffer = tamanioBuffer;
+        this.maximoSuscriptores = maximoSuscriptores;
+        this.duracion = duracion;
+        this.latido = latido;
+        this.envios = Executors.newCachedThreadPool(hilos("equipos-stream-"));
+        this.latidos = Executors.newSingleThreadScheduledExecutor(hilos("equipos-stream-latido-"));
+        Gauge.builder("equipos.stream.suscriptores", suscriptores, Set::size)
+                .description("Suscriptores conectados a GET /equipos/stream")
+                .register(meterRegistry);
+        this.desconexiones = Counter.builder("equipos.stream.desconexiones")
+                .description("Suscriptores desconectados por no consumir los eventos a tiempo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra un nuevo suscriptor.
+     * Si se indica el ID del último evento recibido se le reenvían los posteriores; si ese evento ya no está en
+     * el historial o es de otro arranque, recibe primero un evento {@value #EVENTO_REINICIO}.
+     *
+     * @param ultimoEvento Valor del header Last-Event-ID, o null en la primera conexión.
+     * @return El emisor SSE de la suscripción.
+     * @throws CustomizableException Si se alcanzó el máximo de suscriptores o la aplicación se está deteniendo (503).
+     */
+    public SseEmitter suscribir(String ultimoEvento) {
+        if (!corriendo) {
+            throw new CustomizableException("El servicio se esta deteniendo", 503);
+        }
+        if (suscriptores.size() >= maximoSuscriptores) {
+            throw new CustomizableException("Demasiados suscriptores, reintente mas tarde", 503);
+        }
+        SseEmitter emitter = new SseEmitter(duracion.toMillis());
+        Suscriptor suscriptor;
+        synchronized (this) {
+            // con el lock tomado no se emiten eventos: no quedan huecos ni repetidos entre el reenvío y los nuevos
+            suscriptor = new Suscriptor(emitter, pendientesDesde(ultimoEvento));
+            suscriptores.add(suscriptor);
+        }
+        emitter.onCompletion(() -> quitar(suscriptor));
+        emitter.onTimeout(() -> quitar(suscriptor));
+        emitter.onError(error -> quitar(suscriptor));
+        suscriptor.programar();
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiar(EquipoCambio cambio) {
+        String nombre = cambio.getTipo().name().toLowerCase(Locale.ROOT);
+        String datos = serializar(cambio);
+        synchronized (this) {
+            long secuencia = ++ultimo;
+            Evento evento = new Evento(SseEmitter.event().id(id(secuencia)).name(nombre).data(datos).build());
+            historial[(int) (secuencia % historial.length)] = evento;
+            for (Suscriptor suscriptor : suscriptores) {
+                suscriptor.entregar(evento);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        corriendo = true;
+        long intervalo = latido.toMillis();
+        latidos.scheduleAtFixedRate(() -> suscriptores.forEach(Suscriptor::latir), intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cierra todas las suscripciones, para que el cierre ordenado del servidor web no tenga que esperarlas.
+     */
+    @Override
+    public void stop() {
+        corriendo = false;
+        latidos.shutdownNow();
+        suscriptores.forEach(Suscriptor::cerrar);
+        envios.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return corriendo;
+    }
+
+    /* Se detiene antes que el servidor web */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE;
+    }
+
+    /**
+     * Arma la lista de eventos a reenviar a un suscriptor que se reconecta. Se llama con el lock tomado.
+     */
+    private List<Evento> pendientesDesde(String ultimoEvento) {
+        List<Evento> pendientes = new ArrayList<>();
+        if (ultimoEvento == null) {
+            return pendientes;
+        }
+        long desde = secuenciaDe(ultimoEvento);
+        if (desde < 0 || desde < ultimo - historial.length || desde > ultimo) {
+            String actual = id(ultimo);
+            pendientes.add(new Evento(SseEmitter.event().id(actual).name(EVENTO_REINICIO).data(actual).build()));
+            return pendientes;
+        }
+        for (long secuencia = desde + 1; secuencia <= ultimo; secuencia++) {
+            pendientes.add(historial[(int) (secuencia % historial.length)]);
+        }
+        return pendientes;
+    }
+
+    /**
+     * Obtiene la secuencia de un ID de evento, o -1 si es inválido o de otro arranque.
+     */
+    private long secuenciaDe(String id) {
+        int separador = id.lastIndexOf('-');
+        if (separador < 0 || !arranque.equals(id.substring(0, separador))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(id.substring(separador + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String id(long secuencia) {
+        return arranque + "-" + secuencia;
+    }
+
+    /**
+     * Serializa el equipo del cambio. En un equipo eliminado solo va el ID y en una actualización parcial
+     * los campos no modificados van en null.
+     */
+    private String serializar(EquipoCambio cambio) {
+        Equipo equipo = cambio.getEquipo();
+        EquipoResponse datos = equipo == null
+                ? new EquipoResponse(cambio.getId(), null, null, null)
+                : new EquipoResponse(cambio.getId(), equipo.getNombre(), equipo.getLiga(), equipo.getPais());
+        try {
+            return objectMapper.writeValueAsString(datos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el equipo " + cambio.getId(), e);
+        }
+    }
+
+    private void quitar(Suscriptor suscriptor) {
+        suscriptor.terminado = true;
+        suscriptores.remove(suscriptor);
+    }
+
+    private static CustomizableThreadFactory hilos(String prefijo) {
+        CustomizableThreadFactory fabrica = new CustomizableThreadFactory(prefijo);
+        fabrica.setDaemon(true);
+        return fabrica;
+    }
+
+    /* Evento SSE ya armado, compartido entre todos los suscriptores */
+    private record Evento(Set<DataWithMediaType> datos) {
+    }
+
+    /**
+     * Suscripción a los cambios con su buffer de eventos pendientes.
+     * A lo sumo una tarea de envío corre a la vez por suscriptor y se programa solo cuando hay algo que enviar.
+     */
+    private final class Suscriptor implements Runnable {
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<Evento> pendientes;
+
+        private final AtomicBoolean programado = new AtomicBoolean();
+
+        private volatile boolean cerrando;
+
+        private volatile boolean terminado;
+
+        private Suscriptor(SseEmitter emitter, List<Evento> reenvios) {
+            this.emitter = emitter;
+            this.pendientes = new ArrayBlockingQueue<>(tamanioBuffer + reenvios.size());
+            this.pendientes.addAll(reenvios);
+        }
+
+        /**
+         * Encola un evento sin bloquear; si el buffer está lleno se desconecta al suscriptor,
+         * que podrá reconectarse con Last-Event-ID.
+         */
+        private void entregar(Evento evento) {
+            if (pendientes.offer(evento)) {
+                programar();
+            } else if (!cerrando) {
+                suscriptores.remove(this);
+                desconexiones.increment();
+                cerrar();
+            }
+        }
+
+        private void latir() {
+            if (pendientes.isEmpty() && pendientes.offer(LATIDO)) {
+                programar();
+            }
+        }
+
+        private void cerrar() {
+            cerrando = true;
+            programar();
+        }
+
+        private void programar() {
+            if (terminado || !programado.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                envios.execute(this);
+            } catch (RejectedExecutionException e) {
+                programado.set(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            List<Evento> lote = new ArrayList<>();
+            try {
+                // los eventos acumulados se escriben juntos, con un solo flush
+                while (!cerrando && pendientes.drainTo(lote, MAXIMO_LOTE) > 0) {
+                    Set<DataWithMediaType> datos = new LinkedHashSet<>();
+                    for (Evento evento : lote) {
+                        datos.addAll(evento.datos());
+                    }
+                    lote.clear();
+                    emitter.send(datos);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // el cliente cortó la conexión o la suscripción ya terminó: el contenedor avisa por onError/onCompletion
+                quitar(this);
+                return;
+            }
+            if (cerrando) {
+                quitar(this);
+                emitter.complete();
+                return;
+            }
+            programado.set(false);
+            if (!pendientes.isEmpty() || cerrando) {
+                programar();
+            }
+        }
+    }
+}
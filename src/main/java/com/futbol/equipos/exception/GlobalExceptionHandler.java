@@ -4,6 +4,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 import java.util.LinkedHashMap;
 
@@ -12,12 +15,16 @@ public class GlobalExceptionHandler {
 
     /**
      * Maneja excepciones personalizadas lanzadas por la aplicación.
+     * La excepción se registra en la observación de la solicitud para que la métrica
+     * http.server.requests la etiquete, aunque quede manejada aquí.
      * 
      * @param ex Excepción del tipo CustomizableException.
+     * @param request Solicitud HTTP en curso.
      * @return Una respuesta HTTP con el mensaje y el código de error personalizados.
      */
     @ExceptionHandler(CustomizableException.class)
-    public ResponseEntity<LinkedHashMap<String, Object>> handleCustomizableException(CustomizableException ex) {
+    public ResponseEntity<LinkedHashMap<String, Object>> handleCustomizableException(CustomizableException ex, HttpServletRequest request) {
+        ServerHttpObservationFilter.findObservationContext(request).ifPresent(contexto -> contexto.setError(ex));
         LinkedHashMap<String, Object> response = new LinkedHashMap<>();
         response.put("mensaje", ex.getMensaje());
         response.put("codigo", ex.getCodigo());
@@ -29,10 +36,12 @@ public class GlobalExceptionHandler {
      * Devuelve un error interno del servidor (HTTP 500) como respuesta.
      * 
      * @param ex Excepción genérica lanzada por la aplicación.
+     * @param request Solicitud HTTP en curso.
      * @return Una respuesta HTTP con un mensaje estándar de error interno.
      */
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<LinkedHashMap<String, Object>> handleGeneralException(Exception ex) {
+    public ResponseEntity<LinkedHashMap<String, Object>> handleGeneralException(Exception ex, HttpServletRequest request) {
+        ServerHttpObservationFilter.findObservationContext(request).ifPresent(contexto -> contexto.setError(ex));
         LinkedHashMap<String, Object> response = new LinkedHashMap<>();
         response.put("mensaje", "Error interno del servidor");
         response.put("codigo", HttpStatus.INTERNAL_SERVER_ERROR.value());
@@ -0,0 +1,40 @@
+package com.futbol.equipos.formato;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Formatos binarios alternativos a JSON para las respuestas, elegidos por el cliente con el header Accept:
+ * application/cbor y application/x-jackson-smile. Ambos se serializan con la misma configuración de Jackson
+ * que el JSON (anotaciones y spring.jackson.*), por lo que los campos de cada respuesta son los mismos.
+ * Sin Accept, o con application/json, se sigue respondiendo JSON.
+ * Como el cuerpo depende de Accept, las respuestas llevan Vary: Accept (VaryAccept) y los ETags indican el
+ * formato (Representacion).
+ */
+@Configuration
+public class FormatoConfig {
+
+    /**
+     * @param builder Constructor de ObjectMapper con la configuración de Jackson de la aplicación.
+     * @return Conversor para application/cbor.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * @param builder Constructor de ObjectMapper con la configuración de Jackson de la aplicación.
+     * @return Conversor para application/x-jackson-smile.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
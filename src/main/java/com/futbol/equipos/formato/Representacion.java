@@ -0,0 +1,93 @@
+package com.futbol.equipos.formato;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Formato (JSON, CBOR o Smile) en que se responderá una solicitud según su header Accept, con la misma
+ * preferencia que aplica Spring MVC al elegir el conversor: calidad, luego especificidad, y JSON para comodines.
+ * Sirve para que los ETags distingan la representación: el mismo ETag para un cuerpo JSON y uno CBOR
+ * permitiría que una caché compartida o un GET condicional entreguen a un cliente el formato de otro.
+ */
+public final class Representacion {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    public static final String JSON = "json";
+
+    public static final String CBOR = "cbor";
+
+    public static final String SMILE = "smile";
+
+    private Representacion() {
+    }
+
+    /**
+     * @param webRequest Solicitud actual.
+     * @return El formato de la respuesta: {@value #JSON}, {@value #CBOR} o {@value #SMILE}.
+     */
+    public static String de(WebRequest webRequest) {
+        String[] accept = webRequest.getHeaderValues(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return JSON;
+        }
+        List<MediaType> tipos = new ArrayList<>();
+        try {
+            for (String valor : accept) {
+                tipos.addAll(MediaType.parseMediaTypes(valor));
+            }
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(tipos);
+        for (MediaType tipo : tipos) {
+            if (tipo.getQualityValue() == 0) {
+                continue;
+            }
+            if (tipo.isWildcardType() || tipo.isWildcardSubtype() || tipo.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return JSON;
+            }
+            if (tipo.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return CBOR;
+            }
+            if (tipo.isCompatibleWith(APPLICATION_SMILE)) {
+                return SMILE;
+            }
+        }
+        return JSON;
+    }
+
+    /**
+     * Agrega el formato de la respuesta a un ETag; el de JSON queda igual, para no invalidar los ya entregados.
+     *
+     * @param etag ETag entre comillas, fuerte o débil.
+     * @param webRequest Solicitud actual.
+     * @return El ETag de la representación, por ejemplo "1-3-cbor".
+     */
+    public static String etag(String etag, WebRequest webRequest) {
+        String formato = de(webRequest);
+        return JSON.equals(formato) ? etag : etag.substring(0, etag.length() - 1) + "-" + formato + "\"";
+    }
+
+    /**
+     * Quita el formato de un ETag generado con {@link #etag}, para comparar solo la versión en If-Match.
+     *
+     * @param etag ETag entre comillas.
+     * @return El ETag sin el sufijo de formato.
+     */
+    public static String sinFormato(String etag) {
+        for (String formato : List.of(CBOR, SMILE)) {
+            String sufijo = "-" + formato + "\"";
+            if (etag.endsWith(sufijo)) {
+                return etag.substring(0, etag.length() - sufijo.length()) + "\"";
+            }
+        }
+        return etag;
+    }
+}
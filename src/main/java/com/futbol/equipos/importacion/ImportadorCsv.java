@@ -0,0 +1,162 @@
+package com.futbol.equipos.importacion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.futbol.equipos.exception.CustomizableException;
+import com.futbol.equipos.request.EquipoRequest;
+import com.futbol.equipos.request.OperacionBulk;
+import com.futbol.equipos.response.FilaRechazada;
+import com.futbol.equipos.response.ResultadoBulk;
+import com.futbol.equipos.response.ResumenImportacion;
+import com.futbol.equipos.service.EquipoService;
+
+/**
+ * Importa equipos desde un CSV leído a medida que llega, usado por POST /equipos/import.
+ * El archivo debe empezar con un encabezado que incluya las columnas nombre, liga y pais (en cualquier orden).
+ * Cada fila se valida con las reglas de EquipoService y las válidas se acumulan en bloques de tamaño fijo
+ * (equipos.import.tamanio-bloque) que se crean con EquipoService.aplicarBulk, confirmando en lotes de
+ * equipos.bulk.tamanio-lote; un lote que falla no revierte los anteriores. La memoria no depende del tamaño
+ * del archivo: solo se guarda el bloque en curso, y cada lote se confirma en su propia transacción, cuyo contexto
+ * de persistencia se cierra con ella (sin open-in-view no hay uno de la solicitud que acumule los equipos).
+ */
+@Component
+public class ImportadorCsv {
+
+    private static final char BOM = '\uFEFF';
+
+    private final EquipoService equipoService;
+
+    private final int tamanioBloque;
+
+    private final int maximoRechazos;
+
+    /**
+     * @param equipoService Servicio con el que se validan y crean los equipos.
+     * @param tamanioBloque Cantidad de filas válidas que se envían juntas a aplicarBulk (equipos.import.tamanio-bloque).
+     * @param maximoRechazos Cantidad máxima de filas rechazadas que se detallan en el resumen (equipos.import.maximo-rechazos).
+     */
+    public ImportadorCsv(EquipoService equipoService,
+            @Value("${equipos.import.tamanio-bloque:500}") int tamanioBloque,
+            @Value("${equipos.import.maximo-rechazos:1000}") int maximoRechazos) {
+        if (tamanioBloque < 1 || tamanioBloque > EquipoService.MAXIMO_OPERACIONES_BULK) {
+            throw new IllegalArgumentException("equipos.import.tamanio-bloque debe estar entre 1 y " + EquipoService.MAXIMO_OPERACIONES_BULK);
+        }
+        this.equipoService = equipoService;
+        this.tamanioBloque = tamanioBloque;
+        this.maximoRechazos = maximoRechazos;
+    }
+
+    /**
+     * Importa los equipos de un CSV codificado en UTF-8.
+     *
+     * @param entrada El contenido del archivo; se lee una sola vez, sin cargarlo completo.
+     * @return La cantidad de filas creadas y rechazadas, con la línea y el motivo de cada rechazo.
+     * @throws CustomizableException Si el archivo está vacío o el encabezado no tiene las columnas esperadas (400).
+     * @throws IOException Si no se puede leer la entrada.
+     */
+    public ResumenImportacion importar(InputStream entrada) throws IOException {
+        LectorCsv lector = new LectorCsv(new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8)));
+        LectorCsv.Registro encabezado = lector.siguiente();
+        if (encabezado == null || encabezado.error != null) {
+            throw new CustomizableException("El archivo CSV esta vacio o su encabezado es invalido", 400);
+        }
+        int[] columnas = columnas(encabezado.campos);
+
+        ResumenImportacion resumen = new ResumenImportacion();
+        List<OperacionBulk> bloque = new ArrayList<>(tamanioBloque);
+        List<Integer> lineas = new ArrayList<>(tamanioBloque);
+        LectorCsv.Registro fila;
+        while ((fila = lector.siguiente()) != null) {
+            if (fila.esVacio()) {
+                continue;
+            }
+            String error = fila.error != null ? fila.error
+                    : fila.campos.size() != encabezado.campos.size() ? "Cantidad de columnas invalida" : null;
+            if (error != null) {
+                rechazar(resumen, fila.linea, error);
+                continue;
+            }
+
+            EquipoRequest equipo = new EquipoRequest(valor(fila, columnas[0]), valor(fila, columnas[1]), valor(fila, columnas[2]));
+            try {
+                equipoService.validarRequest(equipo);
+            } catch (CustomizableException e) {
+                rechazar(resumen, fila.linea, e.getMensaje());
+                continue;
+            }
+            bloque.add(new OperacionBulk("crear", null, equipo));
+            lineas.add(fila.linea);
+            if (bloque.size() == tamanioBloque) {
+                crear(bloque, lineas, resumen);
+            }
+        }
+        if (!bloque.isEmpty()) {
+            crear(bloque, lineas, resumen);
+        }
+        return resumen;
+    }
+
+    /**
+     * Crea un bloque de equipos válidos, registra el resultado de cada fila y vacía el bloque.
+     */
+    private void crear(List<OperacionBulk> bloque, List<Integer> lineas, ResumenImportacion resumen) {
+        List<ResultadoBulk> resultados = equipoService.aplicarBulk(bloque);
+        for (int i = 0; i < resultados.size(); i++) {
+            if (resultados.get(i).getCodigo() == 201) {
+                resumen.setAceptadas(resumen.getAceptadas() + 1);
+            } else {
+                rechazar(resumen, lineas.get(i), resultados.get(i).getMensaje());
+            }
+        }
+        bloque.clear();
+        lineas.clear();
+    }
+
+    private void rechazar(ResumenImportacion resumen, int linea, String mensaje) {
+        resumen.setRechazadas(resumen.getRechazadas() + 1);
+        if (resumen.getRechazos().size() < maximoRechazos) {
+            resumen.getRechazos().add(new FilaRechazada(linea, mensaje));
+        } else {
+            resumen.setRechazosOmitidos(resumen.getRechazosOmitidos() + 1);
+        }
+    }
+
+    /**
+     * Ubica las columnas nombre, liga y pais en el encabezado, sin importar mayúsculas ni espacios.
+     *
+     * @return La posición de nombre, liga y pais, en ese orden.
+     */
+    private static int[] columnas(List<String> encabezado) {
+        int[] columnas = {-1, -1, -1};
+        for (int i = 0; i < encabezado.size(); i++) {
+            String nombre = encabezado.get(i).trim().toLowerCase(Locale.ROOT);
+            if (i == 0 && !nombre.isEmpty() && nombre.charAt(0) == BOM) {
+                nombre = nombre.substring(1);
+            }
+            int posicion = List.of("nombre", "liga", "pais").indexOf(nombre);
+            if (posicion >= 0 && columnas[posicion] < 0) {
+                columnas[posicion] = i;
+            }
+        }
+        for (int columna : columnas) {
+            if (columna < 0) {
+                throw new CustomizableException("El encabezado del CSV debe tener las columnas nombre, liga y pais", 400);
+            }
+        }
+        return columnas;
+    }
+
+    private static String valor(LectorCsv.Registro fila, int columna) {
+        return fila.campos.get(columna).trim();
+    }
+}
@@ -0,0 +1,122 @@
+package com.futbol.equipos.importacion;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector incremental de CSV (RFC 4180): devuelve un registro por vez sin cargar el archivo en memoria.
+ * Acepta campos entre comillas con comas, saltos de línea y comillas duplicadas, y finales de línea LF o CRLF.
+ * Un registro que supera {@value #MAXIMO_CARACTERES} caracteres se consume hasta su fin pero se marca con error,
+ * para que la memoria usada no dependa del contenido del archivo.
+ */
+final class LectorCsv {
+
+    static final int MAXIMO_CARACTERES = 10_000;
+
+    private static final int SIN_LEER = -2;
+
+    private final Reader lector;
+
+    /* Línea física en la que está el lector */
+    private int linea = 1;
+
+    private int devuelto = SIN_LEER;
+
+    LectorCsv(Reader lector) {
+        this.lector = lector;
+    }
+
+    /**
+     * Lee el próximo registro.
+     *
+     * @return El registro, o null al llegar al final del archivo.
+     */
+    Registro siguiente() throws IOException {
+        int c = leer();
+        if (c == -1) {
+            return null;
+        }
+
+        int inicio = linea;
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        int caracteres = 0;
+        boolean entreComillas = false;
+        while (true) {
+            if (entreComillas) {
+                if (c == -1) {
+                    return new Registro(inicio, campos, "Comillas sin cerrar");
+                }
+                if (c == '"') {
+                    int siguiente = leer();
+                    if (siguiente != '"') {
+                        entreComillas = false;
+                        c = siguiente;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    linea++;
+                }
+                if (++caracteres <= MAXIMO_CARACTERES) {
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.length() == 0) {
+                entreComillas = true;
+            } else if (c == ',') {
+                // el separador también cuenta: una fila de solo comas no puede acumular campos sin límite
+                if (++caracteres <= MAXIMO_CARACTERES) {
+                    campos.add(campo.toString());
+                }
+                campo.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int siguiente = leer();
+                    if (siguiente != '\n') {
+                        devuelto = siguiente;
+                    }
+                }
+                if (c != -1) {
+                    linea++;
+                }
+                break;
+            } else if (++caracteres <= MAXIMO_CARACTERES) {
+                campo.append((char) c);
+            }
+            c = leer();
+        }
+        campos.add(campo.toString());
+        return new Registro(inicio, campos, caracteres > MAXIMO_CARACTERES ? "Fila demasiado larga" : null);
+    }
+
+    private int leer() throws IOException {
+        if (devuelto != SIN_LEER) {
+            int c = devuelto;
+            devuelto = SIN_LEER;
+            return c;
+        }
+        return lector.read();
+    }
+
+    /* Registro leído junto con la línea en la que empieza */
+    static final class Registro {
+
+        final int linea;
+
+        final List<String> campos;
+
+        /* Motivo por el que el registro no pudo leerse, o null */
+        final String error;
+
+        Registro(int linea, List<String> campos, String error) {
+            this.linea = linea;
+            this.campos = campos;
+            this.error = error;
+        }
+
+        boolean esVacio() {
+            return error == null && campos.size() == 1 && campos.get(0).isEmpty();
+        }
+    }
+}
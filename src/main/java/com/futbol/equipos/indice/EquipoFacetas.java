@@ -0,0 +1,338 @@
+package com.futbol.equipos.indice;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.futbol.equipos.entity.Equipo;
+import com.futbol.equipos.evento.EquipoCambio;
+import com.futbol.equipos.repository.ConteoFaceta;
+import com.futbol.equipos.repository.EquipoRepository;
+import com.futbol.equipos.response.FacetasEquipos;
+import com.futbol.equipos.shard.Shards;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Cantidad de equipos por liga y por país, mantenida en memoria.
+ * Se construye al iniciar la aplicación y se ajusta con cada escritura confirmada en EquipoService.
+ * Guarda la liga y el país de cada equipo, por lo que una actualización que lo cambia de liga descuenta
+ * la anterior y repetir un mismo cambio no altera los totales.
+ * Periódicamente se compara contra un GROUP BY sobre la tabla y, si difiere, se reconstruye.
+ */
+@Component
+public class EquipoFacetas {
+
+    private static final Logger log = LoggerFactory.getLogger(EquipoFacetas.class);
+
+    private final EquipoRepository equipoRepository;
+
+    private final EntityManager entityManager;
+
+    private final Shards shards;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /* ID -> liga y país actuales del equipo */
+    private final Map<Long, Ubicacion> ubicaciones = new HashMap<>();
+
+    private final TreeMap<String, Long> porLiga = new TreeMap<>();
+
+    private final TreeMap<String, Long> porPais = new TreeMap<>();
+
+    /* IDs modificados mientras se construían las facetas, que la carga no debe pisar */
+    private final Set<Long> modificadosDuranteConstruccion = new HashSet<>();
+
+    /* Cambios parciales sobre equipos que la construcción todavía no había cargado; se aplican sobre lo leído */
+    private final Map<Long, Ubicacion> parcialesDuranteConstruccion = new HashMap<>();
+
+    private boolean construyendo;
+
+    /* Cantidad de cambios aplicados, para descartar una reconciliación que se cruzó con escrituras */
+    private long cambiosAplicados;
+
+    private volatile boolean listo;
+
+    public EquipoFacetas(EquipoRepository equipoRepository, EntityManager entityManager, Shards shards) {
+        this.equipoRepository = equipoRepository;
+        this.entityManager = entityManager;
+        this.shards = shards;
+    }
+
+    /**
+     * Construye las facetas recorriendo todos los equipos al iniciar la aplicación.
+     * Mientras tanto siguen aplicándose los cambios confirmados; al terminar, los equipos
+     * modificados durante la carga conservan el estado que dejaron esos cambios.
+     * Solo se guardan la liga y el país de cada equipo leído; la entidad se desvincula enseguida.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void construir() {
+        conEscritura(() -> {
+            construyendo = true;
+            modificadosDuranteConstruccion.clear();
+            parcialesDuranteConstruccion.clear();
+        });
+        Map<Long, Ubicacion> leidas = new HashMap<>();
+        Map<String, String> valores = new HashMap<>();
+        try {
+            shards.recorrer(shard -> {
+                try (Stream<Equipo> equipos = equipoRepository.streamAllByOrderByIdAsc()) {
+                    equipos.forEach(equipo -> {
+                        leidas.put(equipo.getId(), new Ubicacion(
+                                valores.computeIfAbsent(equipo.getLiga(), v -> v),
+                                valores.computeIfAbsent(equipo.getPais(), v -> v)));
+                        entityManager.detach(equipo);
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            conEscritura(() -> {
+                construyendo = false;
+                parcialesDuranteConstruccion.clear();
+            });
+            throw e;
+        }
+        conEscritura(() -> {
+            for (Long id : modificadosDuranteConstruccion) {
+                Ubicacion actual = ubicaciones.get(id);
+                if (actual == null) {
+                    leidas.remove(id);
+                } else {
+                    leidas.put(id, actual);
+                }
+            }
+            parcialesDuranteConstruccion.forEach((id, parcial) -> {
+                if (!modificadosDuranteConstruccion.contains(id)) {
+                    leidas.computeIfPresent(id, (clave, leida) -> leida.con(parcial.liga, parcial.pais));
+                }
+            });
+            ubicaciones.clear();
+            porLiga.clear();
+            porPais.clear();
+            leidas.forEach(this::agregar);
+            construyendo = false;
+            modificadosDuranteConstruccion.clear();
+            parcialesDuranteConstruccion.clear();
+        });
+        listo = true;
+    }
+
+    /**
+     * Mantiene las facetas al día con las escrituras confirmadas en EquipoService.
+     *
+     * @param cambio El cambio realizado sobre un equipo.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiar(EquipoCambio cambio) {
+        if (cambio.getTipo() == EquipoCambio.Tipo.ELIMINADO) {
+            eliminar(cambio.getId());
+        } else if (cambio.getTipo() == EquipoCambio.Tipo.ACTUALIZADO_PARCIAL) {
+            registrarParcial(cambio.getId(), cambio.getEquipo().getLiga(), cambio.getEquipo().getPais());
+        } else {
+            registrar(cambio.getId(), cambio.getEquipo().getLiga(), cambio.getEquipo().getPais());
+        }
+    }
+
+    /**
+     * Registra la liga y el país actuales de un equipo, descontando los que tenía antes.
+     *
+     * @param id ID del equipo.
+     * @param liga Liga actual del equipo.
+     * @param pais País actual del equipo.
+     */
+    public void registrar(Long id, String liga, String pais) {
+        conEscritura(() -> {
+            marcarModificado(id);
+            quitar(id);
+            agregar(id, new Ubicacion(canonico(porLiga, liga), canonico(porPais, pais)));
+        });
+    }
+
+    /**
+     * Registra una actualización parcial: la liga y/o el país indicados reemplazan a los actuales.
+     * Si el equipo todavía no fue cargado por la construcción, el cambio se aplica sobre lo que esta lea.
+     *
+     * @param id ID del equipo.
+     * @param liga Nueva liga del equipo, o null si no cambió.
+     * @param pais Nuevo país del equipo, o null si no cambió.
+     */
+    public void registrarParcial(Long id, String liga, String pais) {
+        if (liga == null && pais == null) {
+            return;
+        }
+        conEscritura(() -> {
+            Ubicacion actual = ubicaciones.get(id);
+            if (actual != null) {
+                marcarModificado(id);
+                quitar(id);
+                agregar(id, actual.con(liga == null ? null : canonico(porLiga, liga),
+                        pais == null ? null : canonico(porPais, pais)));
+            } else if (construyendo) {
+                cambiosAplicados++;
+                parcialesDuranteConstruccion.merge(id, new Ubicacion(liga, pais),
+                        (anterior, nueva) -> anterior.con(nueva.liga, nueva.pais));
+            }
+        });
+    }
+
+    /**
+     * Descuenta un equipo eliminado.
+     *
+     * @param id ID del equipo.
+     */
+    public void eliminar(Long id) {
+        conEscritura(() -> {
+            marcarModificado(id);
+            quitar(id);
+        });
+    }
+
+    /**
+     * Indica si las facetas terminaron de construirse y pueden responder sin consultar la base.
+     */
+    public boolean estaListo() {
+        return listo;
+    }
+
+    /**
+     * Devuelve una copia consistente de las cantidades por liga y por país.
+     * El costo depende solo de la cantidad de ligas y países distintos.
+     *
+     * @return Las facetas, ordenadas por nombre.
+     */
+    public FacetasEquipos obtener() {
+        lock.readLock().lock();
+        try {
+            return new FacetasEquipos(new LinkedHashMap<>(porLiga), new LinkedHashMap<>(porPais));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compara las facetas con un GROUP BY sobre la tabla de cada shard y las reconstruye si no coinciden,
+     * por ejemplo tras escrituras hechas por fuera de la aplicación.
+     * Si se aplicaron cambios mientras corría la consulta, la comparación se deja para la próxima vez.
+     */
+    @Scheduled(initialDelayString = "${equipos.facetas.reconciliacion:5m}", fixedDelayString = "${equipos.facetas.reconciliacion:5m}")
+    @Transactional(readOnly = true)
+    public void reconciliar() {
+        if (!listo) {
+            return;
+        }
+        long cambiosAntes = leerCambiosAplicados();
+        Map<String, Long> ligas = new HashMap<>();
+        Map<String, Long> paises = new HashMap<>();
+        for (List<List<ConteoFaceta>> conteos : shards.reunir(shard -> List.of(equipoRepository.contarPorLiga(),
+                equipoRepository.contarPorPais()))) {
+            sumar(ligas, conteos.get(0));
+            sumar(paises, conteos.get(1));
+        }
+
+        boolean coinciden;
+        lock.readLock().lock();
+        try {
+            if (cambiosAplicados != cambiosAntes) {
+                return;
+            }
+            coinciden = porLiga.equals(ligas) && porPais.equals(paises);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!coinciden) {
+            log.warn("Las facetas de equipos no coinciden con la base de datos; se reconstruyen");
+            construir();
+        }
+    }
+
+    private long leerCambiosAplicados() {
+        lock.readLock().lock();
+        try {
+            return cambiosAplicados;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void sumar(Map<String, Long> mapa, List<ConteoFaceta> conteos) {
+        for (ConteoFaceta conteo : conteos) {
+            mapa.merge(conteo.getValor(), conteo.getCantidad(), Long::sum);
+        }
+    }
+
+    private void agregar(Long id, Ubicacion ubicacion) {
+        ubicaciones.put(id, ubicacion);
+        porLiga.merge(ubicacion.liga, 1L, Long::sum);
+        porPais.merge(ubicacion.pais, 1L, Long::sum);
+    }
+
+    private void quitar(Long id) {
+        Ubicacion anterior = ubicaciones.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        descontar(porLiga, anterior.liga);
+        descontar(porPais, anterior.pais);
+    }
+
+    private static void descontar(Map<String, Long> conteos, String valor) {
+        conteos.computeIfPresent(valor, (v, cantidad) -> cantidad == 1 ? null : cantidad - 1);
+    }
+
+    /* Reutiliza la instancia ya contada del mismo valor, para no guardar una copia por equipo */
+    private static String canonico(TreeMap<String, Long> conteos, String valor) {
+        String existente = conteos.floorKey(valor);
+        return valor.equals(existente) ? existente : valor;
+    }
+
+    private void marcarModificado(Long id) {
+        cambiosAplicados++;
+        if (construyendo) {
+            modificadosDuranteConstruccion.add(id);
+        }
+    }
+
+    private void conEscritura(Runnable accion) {
+        lock.writeLock().lock();
+        try {
+            accion.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /* Liga y país de un equipo */
+    private static final class Ubicacion {
+
+        private final String liga;
+
+        private final String pais;
+
+        private Ubicacion(String liga, String pais) {
+            this.liga = liga;
+            this.pais = pais;
+        }
+
+        /* Copia con la liga y/o el país reemplazados; null conserva el valor actual */
+        private Ubicacion con(String nuevaLiga, String nuevoPais) {
+            return new Ubicacion(nuevaLiga != null ? nuevaLiga : liga, nuevoPais != null ? nuevoPais : pais);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.futbol.equipos.indice;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.futbol.equipos.entity.Equipo;
+import com.futbol.equipos.evento.EquipoCambio;
+import com.futbol.equipos.repository.EquipoRepository;
+import com.futbol.equipos.shard.Shards;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Índice invertido de trigramas sobre el nombre de los equipos, mantenido en memoria.
+ * Permite resolver búsquedas por nombre parcial sin recorrer la tabla con LIKE '%x%'.
+ * Los nombres se normalizan a minúsculas y sin acentos, por lo que "atletico" encuentra "Atlético Madrid".
+ */
+@Component
+public class EquipoNombreIndice {
+
+    private static final int N = 3;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private final EquipoRepository equipoRepository;
+
+    private final EntityManager entityManager;
+
+    private final Shards shards;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /* trigrama -> IDs de los equipos cuyo nombre lo contiene */
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    /* ID -> nombre normalizado, usado para verificar los candidatos */
+    private final Map<Long, String> nombres = new HashMap<>();
+
+    /* IDs modificados mientras se construía el índice, que la carga inicial no debe pisar */
+    private final Set<Long> modificadosDuranteConstruccion = new HashSet<>();
+
+    private boolean construyendo;
+
+    private volatile boolean listo;
+
+    public EquipoNombreIndice(EquipoRepository equipoRepository, EntityManager entityManager, Shards shards) {
+        this.equipoRepository = equipoRepository;
+        this.entityManager = entityManager;
+        this.shards = shards;
+    }
+
+    /**
+     * Construye el índice recorriendo todos los equipos al iniciar la aplicación, shard por shard.
+     * Cada equipo se desvincula después de indexarlo, para que el contexto de persistencia no crezca con la tabla.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void construir() {
+        conEscritura(() -> construyendo = true);
+        try {
+            shards.recorrer(shard -> {
+                try (Stream<Equipo> equipos = equipoRepository.streamAllByOrderByIdAsc()) {
+                    equipos.forEach(equipo -> {
+                        conEscritura(() -> {
+                            if (!modificadosDuranteConstruccion.contains(equipo.getId())) {
+                                agregar(equipo.getId(), equipo.getNombre());
+                            }
+                        });
+                        entityManager.detach(equipo);
+                    });
+                }
+            });
+        } finally {
+            conEscritura(() -> {
+                construyendo = false;
+                modificadosDuranteConstruccion.clear();
+            });
+        }
+        listo = true;
+    }
+
+    /**
+     * Mantiene el índice al día con las escrituras confirmadas en EquipoService.
+     *
+     * @param cambio El cambio realizado sobre un equipo.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiar(EquipoCambio cambio) {
+        if (cambio.getTipo() == EquipoCambio.Tipo.ELIMINADO) {
+            eliminar(cambio.getId());
+        } else if (cambio.getEquipo().getNombre() != null) {
+            // una actualización parcial sin nombre no cambia el índice
+            indexar(cambio.getId(), cambio.getEquipo().getNombre());
+        }
+    }
+
+    /**
+     * Agrega o reemplaza el nombre indexado de un equipo.
+     *
+     * @param id ID del equipo.
+     * @param nombre Nombre actual del equipo.
+     */
+    public void indexar(Long id, String nombre) {
+        conEscritura(() -> {
+            marcarModificado(id);
+            quitar(id);
+            agregar(id, nombre);
+        });
+    }
+
+    /**
+     * Quita un equipo del índice.
+     *
+     * @param id ID del equipo.
+     */
+    public void eliminar(Long id) {
+        conEscritura(() -> {
+            marcarModificado(id);
+            quitar(id);
+        });
+    }
+
+    /**
+     * Indica si el índice terminó de construirse y puede usarse para responder búsquedas.
+     */
+    public boolean estaListo() {
+        return listo;
+    }
+
+    /**
+     * Busca los equipos cuyo nombre contenga el texto, sin distinguir mayúsculas ni acentos.
+     * Los candidatos salen de la intersección de las listas de cada trigrama del texto y
+     * luego se verifican contra el nombre completo.
+     *
+     * @param texto Texto parcial o completo a buscar.
+     * @return IDs de los equipos que coinciden, ordenados de menor a mayor.
+     */
+    public List<Long> buscar(String texto) {
+        String consulta = normalizar(texto);
+        lock.readLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>();
+            for (Long id : candidatos(consulta)) {
+                if (nombres.get(id).contains(consulta)) {
+                    ids.add(id);
+                }
+            }
+            ids.sort(Comparator.naturalOrder());
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normaliza un texto para comparar: descompone los caracteres acentuados, quita las marcas
+     * diacríticas y pasa todo a minúsculas.
+     *
+     * @param texto Texto a normalizar.
+     * @return El texto normalizado.
+     */
+    public static String normalizar(String texto) {
+        String sinAcentos = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    private Set<Long> candidatos(String consulta) {
+        if (consulta.length() < N) {
+            return nombres.keySet();
+        }
+
+        List<Set<Long>> listas = new ArrayList<>();
+        for (String trigrama : trigramas(consulta)) {
+            Set<Long> lista = postings.get(trigrama);
+            if (lista == null) {
+                return Set.of();
+            }
+            listas.add(lista);
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> resultado = new HashSet<>(listas.get(0));
+        for (int i = 1; i < listas.size() && !resultado.isEmpty(); i++) {
+            resultado.retainAll(listas.get(i));
+        }
+        return resultado;
+    }
+
+    private static Set<String> trigramas(String texto) {
+        Set<String> trigramas = new LinkedHashSet<>();
+        for (int i = 0; i + N <= texto.length(); i++) {
+            trigramas.add(texto.substring(i, i + N));
+        }
+        return trigramas;
+    }
+
+    private void agregar(Long id, String nombre) {
+        String normalizado = normalizar(nombre);
+        nombres.put(id, normalizado);
+        for (String trigrama : trigramas(normalizado)) {
+            postings.computeIfAbsent(trigrama, t -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void quitar(Long id) {
+        String anterior = nombres.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (String trigrama : trigramas(anterior)) {
+            Set<Long> lista = postings.get(trigrama);
+            if (lista != null && lista.remove(id) && lista.isEmpty()) {
+                postings.remove(trigrama);
+            }
+        }
+    }
+
+    private void marcarModificado(Long id) {
+        if (construyendo) {
+            modificadosDuranteConstruccion.add(id);
+        }
+    }
+
+    private void conEscritura(Runnable accion) {
+        lock.writeLock().lock();
+        try {
+            accion.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.futbol.equipos.metricas;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.futbol.equipos.exception.CustomizableException;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Mide la duración de cada método público de EquipoService en el timer equipos.servicio.
+ * Cada medición se etiqueta con el método, el resultado (exito o error), el código de la
+ * CustomizableException lanzada y la clase de la excepción, para separar por ejemplo un 404
+ * de un 412 o de un error inesperado.
+ * Se ejecuta por fuera de la caché y de la transacción, por lo que mide lo mismo que ve el controlador.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricasServicio {
+
+    public static final String TIMER_SERVICIO = "equipos.servicio";
+
+    private static final String NINGUNO = "ninguno";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Meter.MeterProvider<Timer> timers;
+
+    public MetricasServicio(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.timers = Timer.builder(TIMER_SERVICIO)
+                .description("Duración de los métodos de EquipoService")
+                .withRegistry(meterRegistry);
+    }
+
+    @Around("within(com.futbol.equipos.service.EquipoService) && execution(public * *(..))")
+    public Object medir(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        String codigo = NINGUNO;
+        String excepcion = NINGUNO;
+        try {
+            return joinPoint.proceed();
+        } catch (CustomizableException e) {
+            codigo = String.valueOf(e.getCodigo());
+            excepcion = e.getClass().getSimpleName();
+            throw e;
+        } catch (Throwable e) {
+            codigo = "500";
+            excepcion = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            muestra.stop(timers.withTags(
+                    "metodo", joinPoint.getSignature().getName(),
+                    "resultado", NINGUNO.equals(excepcion) ? "exito" : "error",
+                    "codigo", codigo,
+                    "excepcion", excepcion));
+        }
+    }
+}
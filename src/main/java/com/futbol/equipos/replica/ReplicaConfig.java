@@ -0,0 +1,82 @@
+package com.futbol.equipos.replica;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Con equipos.replica.url configurada, separa las lecturas de EquipoService de las escrituras: la primaria sale
+ * de spring.datasource.* y la réplica de equipos.replica.* (pool en equipos.replica.hikari.*). Sin esa propiedad
+ * no se crea nada de esto y todo va al único DataSource de Spring Boot.
+ * Requiere spring.jpa.open-in-view=false: con la sesión abierta durante toda la solicitud, Hibernate conservaría
+ * la conexión de la primera transacción y el ruteo por transacción no tendría efecto.
+ */
+@Configuration
+@ConditionalOnProperty(name = "equipos.replica.url")
+public class ReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primariaDataSource(DataSourceProperties propiedades) {
+        HikariDataSource primaria = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primaria.setPoolName(RuteoDataSource.PRIMARIA);
+        return primaria;
+    }
+
+    @Bean
+    @ConfigurationProperties("equipos.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${equipos.replica.url}") String url,
+            @Value("${equipos.replica.username:${spring.datasource.username:}}") String usuario,
+            @Value("${equipos.replica.password:${spring.datasource.password:}}") String contrasenia) {
+        HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(usuario).password(contrasenia).build();
+        replica.setPoolName(RuteoDataSource.REPLICA);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public RuteoDataSource dataSource(@Qualifier("primariaDataSource") DataSource primaria,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${equipos.replica.demora-tolerada:2s}") Duration demoraTolerada, MeterRegistry meterRegistry) {
+        return new RuteoDataSource(primaria, replica, demoraTolerada, meterRegistry);
+    }
+
+    @Bean
+    public TransaccionesReplica transactionManager(RuteoDataSource ruteo,
+            ObjectProvider<TransactionManagerCustomizers> personalizadores) {
+        TransaccionesReplica transacciones = new TransaccionesReplica(ruteo);
+        personalizadores.ifAvailable(personalizador -> personalizador.customize(transacciones));
+        return transacciones;
+    }
+
+    /**
+     * Réplica simulada para desarrollo: se activa con equipos.replica.local.demora (perfil replica).
+     */
+    @Bean
+    @DependsOnDatabaseInitialization
+    @ConditionalOnProperty(name = "equipos.replica.local.demora")
+    public ReplicacionLocal replicacionLocal(@Qualifier("primariaDataSource") DataSource primaria,
+            @Qualifier("replicaDataSource") DataSource replica, SqlInitializationProperties propiedades,
+            @Value("${equipos.replica.local.demora}") Duration demora) {
+        return new ReplicacionLocal(primaria, replica, propiedades, demora);
+    }
+}
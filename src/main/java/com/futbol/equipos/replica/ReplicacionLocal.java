@@ -0,0 +1,99 @@
+package com.futbol.equipos.replica;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.futbol.equipos.evento.EquipoCambio;
+
+/**
+ * Replicación simulada para probar el ruteo en local con una segunda base H2 como réplica.
+ * Al arrancar crea el esquema de la réplica con los scripts de spring.sql.init y copia todos los equipos de la
+ * primaria; después aplica cada cambio confirmado una vez pasada equipos.replica.local.demora, como una
+ * replicación asíncrona atrasada. Se copia la fila vigente en la primaria, así una actualización parcial llega
+ * completa y un equipo ya borrado se borra. Solo para desarrollo y pruebas: con una réplica real la replicación
+ * la hace la base de datos.
+ */
+public class ReplicacionLocal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicacionLocal.class);
+
+    private static final String SELECT = "SELECT id, nombre, liga, pais, version FROM equipos";
+
+    private static final String MERGE = "MERGE INTO equipos (id, nombre, liga, pais, version) KEY (id) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate primaria;
+
+    private final JdbcTemplate replica;
+
+    private final long demora;
+
+    private final ScheduledExecutorService ejecutor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "replicacion-local");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /**
+     * @param primaria Pool de la base primaria.
+     * @param replica Pool de la réplica, vacía.
+     * @param propiedades Configuración spring.sql.init, con los scripts que crean el esquema.
+     * @param demora Atraso con el que se aplica cada cambio en la réplica (equipos.replica.local.demora).
+     */
+    public ReplicacionLocal(DataSource primaria, DataSource replica, SqlInitializationProperties propiedades, Duration demora) {
+        this.primaria = new JdbcTemplate(primaria);
+        this.replica = new JdbcTemplate(replica);
+        this.demora = demora.toMillis();
+        new SqlDataSourceScriptDatabaseInitializer(replica, propiedades).initializeDatabase();
+        copiarTodo();
+    }
+
+    private void copiarTodo() {
+        List<Object[]> filas = primaria.query(SELECT + " ORDER BY id", ReplicacionLocal::fila);
+        replica.update("DELETE FROM equipos");
+        replica.batchUpdate(MERGE, filas);
+        log.info("Réplica local inicializada con {} equipos, demora {} ms", filas.size(), demora);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiar(EquipoCambio cambio) {
+        Long id = cambio.getId();
+        ejecutor.schedule(() -> replicar(id), demora, TimeUnit.MILLISECONDS);
+    }
+
+    private void replicar(Long id) {
+        try {
+            List<Object[]> filas = primaria.query(SELECT + " WHERE id = ?", ReplicacionLocal::fila, id);
+            if (filas.isEmpty()) {
+                replica.update("DELETE FROM equipos WHERE id = ?", id);
+            } else {
+                replica.update(MERGE, filas.get(0));
+            }
+        } catch (DataAccessException e) {
+            log.warn("No se pudo replicar el equipo {}", id, e);
+        }
+    }
+
+    private static Object[] fila(ResultSet rs, int numero) throws SQLException {
+        return new Object[] { rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getLong(5) };
+    }
+
+    @Override
+    public void close() {
+        ejecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,120 @@
+package com.futbol.equipos.replica;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * DataSource que envía cada conexión a la base primaria o a la réplica de solo lectura.
+ * Solo van a la réplica las transacciones de solo lectura marcadas con la etiqueta {@value #REPLICA}
+ * (las lecturas de EquipoService); el resto, incluidas las que reconstruyen el índice y las facetas, va a la primaria.
+ * La decisión la toma TransaccionesReplica al empezar la transacción, según dos reglas:
+ * <ul>
+ * <li>Una solicitud HTTP que ya escribió lee de la primaria hasta terminar, así ve sus propias escrituras.</li>
+ * <li>Después de confirmar cualquier escritura todas las lecturas van a la primaria durante
+ * equipos.replica.demora-tolerada, el atraso máximo que se espera de la réplica. No es por cliente porque lo leído
+ * se guarda en las cachés compartidas: una lectura atrasada quedaría en caché para todos.</li>
+ * </ul>
+ */
+public class RuteoDataSource extends AbstractRoutingDataSource {
+
+    /* Etiqueta de @Transactional para las lecturas que pueden ir a la réplica */
+    public static final String REPLICA = "replica";
+
+    public static final String PRIMARIA = "primaria";
+
+    public static final String CONTADOR_LECTURAS = "equipos.replica.lecturas";
+
+    private static final String ESCRITURA_EN_SOLICITUD = RuteoDataSource.class.getName() + ".ESCRITURA";
+
+    private final ThreadLocal<Boolean> leyendoReplica = new ThreadLocal<>();
+
+    private final long demoraTolerada;
+
+    /* Instante (System.nanoTime) hasta el que las lecturas van a la primaria */
+    private final AtomicLong primariaHasta = new AtomicLong(System.nanoTime());
+
+    private final Counter lecturasReplica;
+
+    private final Counter lecturasPrimaria;
+
+    /**
+     * @param primaria Pool de la base primaria, que recibe todas las escrituras.
+     * @param replica Pool de la réplica de solo lectura.
+     * @param demoraTolerada Tiempo tras una escritura durante el que se lee de la primaria
+     *        (equipos.replica.demora-tolerada); 0 lee de la réplica apenas termina la solicitud que escribió.
+     * @param meterRegistry Registro del contador de lecturas, por destino.
+     */
+    public RuteoDataSource(DataSource primaria, DataSource replica, Duration demoraTolerada, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(PRIMARIA, primaria, REPLICA, replica));
+        setDefaultTargetDataSource(primaria);
+        this.demoraTolerada = demoraTolerada.toNanos();
+        this.lecturasReplica = meterRegistry.counter(CONTADOR_LECTURAS, "destino", REPLICA);
+        this.lecturasPrimaria = meterRegistry.counter(CONTADOR_LECTURAS, "destino", PRIMARIA);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Boolean.TRUE.equals(leyendoReplica.get()) ? REPLICA : PRIMARIA;
+    }
+
+    /**
+     * Indica si una lectura que empieza ahora puede ir a la réplica.
+     *
+     * @return false si la solicitud actual ya escribió o si la última escritura fue hace menos de la demora tolerada.
+     */
+    public boolean puedeLeerReplica() {
+        RequestAttributes solicitud = RequestContextHolder.getRequestAttributes();
+        if (solicitud != null && solicitud.getAttribute(ESCRITURA_EN_SOLICITUD, RequestAttributes.SCOPE_REQUEST) != null) {
+            return false;
+        }
+        return System.nanoTime() - primariaHasta.get() >= 0;
+    }
+
+    /**
+     * Registra que se confirmó una escritura: durante la demora tolerada las lecturas van a la primaria.
+     */
+    public void registrarEscritura() {
+        long hasta = System.nanoTime() + demoraTolerada;
+        // con escrituras concurrentes se conserva el plazo más lejano
+        primariaHasta.accumulateAndGet(hasta, (actual, nuevo) -> nuevo - actual > 0 ? nuevo : actual);
+    }
+
+    /**
+     * Marca la solicitud HTTP actual, si la hay, como una que escribió.
+     */
+    void iniciarEscritura() {
+        RequestAttributes solicitud = RequestContextHolder.getRequestAttributes();
+        if (solicitud != null) {
+            solicitud.setAttribute(ESCRITURA_EN_SOLICITUD, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Decide el destino de la transacción de lectura que empieza en este hilo.
+     */
+    void iniciarLectura() {
+        if (puedeLeerReplica()) {
+            leyendoReplica.set(Boolean.TRUE);
+            lecturasReplica.increment();
+        } else {
+            lecturasPrimaria.increment();
+        }
+    }
+
+    /**
+     * Vuelve a la primaria al terminar la transacción.
+     */
+    void terminarLectura() {
+        leyendoReplica.remove();
+    }
+}
@@ -0,0 +1,53 @@
+package com.futbol.equipos.replica;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * JpaTransactionManager que elige la base de cada transacción nueva antes de tomar la conexión.
+ * Las de solo lectura con la etiqueta {@value RuteoDataSource#REPLICA} van a la réplica si RuteoDataSource lo
+ * permite; las de escritura marcan la solicitud y, al confirmarse, abren la ventana de lectura en la primaria.
+ * Las transacciones que se suman a una existente usan la conexión de esa.
+ */
+public class TransaccionesReplica extends JpaTransactionManager {
+
+    private final RuteoDataSource ruteo;
+
+    public TransaccionesReplica(RuteoDataSource ruteo) {
+        this.ruteo = ruteo;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        if (!definition.isReadOnly()) {
+            ruteo.iniciarEscritura();
+        } else if (definition instanceof TransactionAttribute atributo && atributo.getLabels().contains(RuteoDataSource.REPLICA)) {
+            ruteo.iniciarLectura();
+        }
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException | Error e) {
+            ruteo.terminarLectura();
+            throw e;
+        }
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        super.doCommit(status);
+        if (!status.isReadOnly()) {
+            ruteo.registrarEscritura();
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            ruteo.terminarLectura();
+        }
+    }
+}
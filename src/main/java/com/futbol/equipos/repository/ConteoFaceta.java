@@ -0,0 +1,11 @@
+package com.futbol.equipos.repository;
+
+/**
+ * Proyección con la cantidad de equipos que comparten un mismo valor de liga o país.
+ */
+public interface ConteoFaceta {
+
+    String getValor();
+
+    long getCantidad();
+}
@@ -1,14 +1,83 @@
 package com.futbol.equipos.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.futbol.equipos.entity.Equipo;
+import com.futbol.equipos.response.EquipoResponse;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface EquipoRepository extends JpaRepository<Equipo, Long> {
+public interface EquipoRepository extends JpaRepository<Equipo, Long>, EquipoRepositoryCustom {
+
+    /**
+     * Obtiene todos los equipos ordenados por ID como proyección de solo lectura.
+     * Las consultas que devuelven EquipoResponse seleccionan solo las columnas expuestas
+     * y no crean entidades administradas.
+     */
+    List<EquipoResponse> findAllByOrderByIdAsc();
+
+    List<EquipoResponse> findAllByNombreContainingIgnoreCase(String nombre);
+
+    /**
+     * Obtiene como proyección de solo lectura los equipos con los IDs indicados, ordenados por ID.
+     */
+    List<EquipoResponse> findAllByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /**
+     * Obtiene una ventana de equipos a partir de una posición keyset (seek query).
+     * El orden siempre se desempata por id, por lo que cada página cuesta lo mismo
+     * sin importar cuán avanzada esté.
+     */
+    Window<EquipoResponse> findAllBy(ScrollPosition posicion, Sort orden, Limit limite);
+
+    /**
+     * Igual que {@link #findAllBy} pero solo con los equipos de una liga; usa el índice idx_equipos_liga.
+     */
+    Window<EquipoResponse> findAllByLiga(String liga, ScrollPosition posicion, Sort orden, Limit limite);
+
+    /**
+     * Igual que {@link #findAllBy} pero solo con los equipos de un país; usa el índice idx_equipos_pais.
+     */
+    Window<EquipoResponse> findAllByPais(String pais, ScrollPosition posicion, Sort orden, Limit limite);
+
+    /**
+     * Igual que {@link #findAllBy} pero solo con los equipos de un país y una liga; usa el índice idx_equipos_pais_liga.
+     */
+    Window<EquipoResponse> findAllByPaisAndLiga(String pais, String liga, ScrollPosition posicion, Sort orden, Limit limite);
+
+    /**
+     * Recorre todos los equipos con un cursor de solo avance, sin cargar la tabla completa en memoria.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar para liberar el cursor JDBC.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Equipo> streamAllByOrderByIdAsc();
+
+    /**
+     * Cuenta los equipos de cada liga con un GROUP BY; se usa para reconciliar las facetas en memoria.
+     */
+    @Query("select e.liga as valor, count(e) as cantidad from Equipo e group by e.liga")
+    List<ConteoFaceta> contarPorLiga();
 
-    List<Equipo> findAllByNombreContainingIgnoreCase(String nombre);
+    /**
+     * Cuenta los equipos de cada país con un GROUP BY; se usa para reconciliar las facetas en memoria.
+     */
+    @Query("select e.pais as valor, count(e) as cantidad from Equipo e group by e.pais")
+    List<ConteoFaceta> contarPorPais();
 }
@@ -0,0 +1,21 @@
+package com.futbol.equipos.repository;
+
+/**
+ * Operaciones de EquipoRepository que no pueden expresarse como consultas derivadas.
+ */
+public interface EquipoRepositoryCustom {
+
+    /**
+     * Actualiza solo los campos indicados de un equipo con un único UPDATE por ID, sin leerlo antes.
+     * Los campos null no se modifican; la versión se incrementa igual que en una actualización normal.
+     * Debe ejecutarse dentro de una transacción.
+     *
+     * @param id ID del equipo a actualizar.
+     * @param nombre Nuevo nombre, o null para conservarlo.
+     * @param liga Nueva liga, o null para conservarla.
+     * @param pais Nuevo país, o null para conservarlo.
+     * @param versionEsperada Versión que debe tener el equipo, o null para no verificarla.
+     * @return La cantidad de filas actualizadas: 0 si el equipo no existe o su versión no coincide.
+     */
+    int actualizarCampos(Long id, String nombre, String liga, String pais, Long versionEsperada);
+}
@@ -0,0 +1,44 @@
+package com.futbol.equipos.repository;
+
+import com.futbol.equipos.entity.Equipo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Implementación de {@link EquipoRepositoryCustom}; Spring Data la combina con EquipoRepository.
+ */
+class EquipoRepositoryCustomImpl implements EquipoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int actualizarCampos(Long id, String nombre, String liga, String pais, Long versionEsperada) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Equipo> update = cb.createCriteriaUpdate(Equipo.class);
+        Root<Equipo> equipo = update.from(Equipo.class);
+
+        // el SET solo lleva las columnas que cambian, más la versión
+        if (nombre != null) {
+            update.set(equipo.<String>get("nombre"), nombre);
+        }
+        if (liga != null) {
+            update.set(equipo.<String>get("liga"), liga);
+        }
+        if (pais != null) {
+            update.set(equipo.<String>get("pais"), pais);
+        }
+        update.set(equipo.<Long>get("version"), cb.sum(equipo.<Long>get("version"), 1L));
+
+        Predicate condicion = cb.equal(equipo.get("id"), id);
+        if (versionEsperada != null) {
+            condicion = cb.and(condicion, cb.equal(equipo.get("version"), versionEsperada));
+        }
+        return entityManager.createQuery(update.where(condicion)).executeUpdate();
+    }
+}
@@ -0,0 +1,48 @@
+package com.futbol.equipos.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Operación individual dentro de una solicitud bulk")
+public class OperacionBulk {
+
+    @Schema(description = "Tipo de operación: crear, actualizar o eliminar", example = "crear")
+    private String operacion;
+
+    @Schema(description = "ID del equipo, requerido para actualizar y eliminar", example = "1")
+    private Long id;
+
+    @Schema(description = "Datos del equipo, requeridos para crear y actualizar")
+    private EquipoRequest equipo;
+
+    public OperacionBulk() {}
+
+    public OperacionBulk(String operacion, Long id, EquipoRequest equipo) {
+        this.operacion = operacion;
+        this.id = id;
+        this.equipo = equipo;
+    }
+
+    public String getOperacion() {
+        return operacion;
+    }
+
+    public void setOperacion(String operacion) {
+        this.operacion = operacion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public EquipoRequest getEquipo() {
+        return equipo;
+    }
+
+    public void setEquipo(EquipoRequest equipo) {
+        this.equipo = equipo;
+    }
+}
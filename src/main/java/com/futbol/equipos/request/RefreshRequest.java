@@ -0,0 +1,23 @@
+package com.futbol.equipos.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Request para renovar el token JWT")
+public class RefreshRequest {
+    @Schema(description = "Refresh token recibido en el login o en la última renovación")
+    private String refreshToken;
+
+    public RefreshRequest() {}
+
+    public RefreshRequest(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,48 @@
+package com.futbol.equipos.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Resultado de un ID pedido en una consulta de varios equipos")
+public class EquipoPorId {
+
+    @Schema(description = "ID pedido", example = "1")
+    private Long id;
+
+    @Schema(description = "Si existe un equipo con ese ID", example = "true")
+    private boolean encontrado;
+
+    @Schema(description = "El equipo, null si no se encontró")
+    private EquipoResponse equipo;
+
+    public EquipoPorId() {}
+
+    public EquipoPorId(Long id, EquipoResponse equipo) {
+        this.id = id;
+        this.encontrado = equipo != null;
+        this.equipo = equipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public boolean isEncontrado() {
+        return encontrado;
+    }
+
+    public void setEncontrado(boolean encontrado) {
+        this.encontrado = encontrado;
+    }
+
+    public EquipoResponse getEquipo() {
+        return equipo;
+    }
+
+    public void setEquipo(EquipoResponse equipo) {
+        this.equipo = equipo;
+    }
+}
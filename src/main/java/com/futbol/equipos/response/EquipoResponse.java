@@ -0,0 +1,16 @@
+package com.futbol.equipos.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Proyección de solo lectura de un equipo, usada por los listados y las búsquedas.
+ * Se arma directamente desde la consulta, sin pasar por una entidad administrada,
+ * y se serializa igual que Equipo (sin la versión).
+ */
+@Schema(description = "Equipo de fútbol devuelto por los listados y las búsquedas")
+public record EquipoResponse(
+        @Schema(description = "ID único del equipo", example = "1") Long id,
+        @Schema(description = "Nombre del equipo", example = "Real Madrid") String nombre,
+        @Schema(description = "Liga en la que compite el equipo", example = "La Liga") String liga,
+        @Schema(description = "País del equipo", example = "España") String pais) {
+}
@@ -0,0 +1,78 @@
+package com.futbol.equipos.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Estado de una creación de equipo encolada en modo asíncrono")
+public class EstadoCreacion {
+
+    public static final String PENDIENTE = "pendiente";
+
+    public static final String PERSISTIDO = "persistido";
+
+    public static final String ERROR = "error";
+
+    @Schema(description = "ID de seguimiento devuelto al encolar la creación", example = "5f0c9a52-5c4e-4c7e-9a57-3f7a2b1d2e10")
+    private String seguimiento;
+
+    @Schema(description = "Estado de la creación: pendiente, persistido o error", example = "persistido")
+    private String estado;
+
+    @Schema(description = "ID asignado al equipo, null mientras no esté persistido", example = "25")
+    private Long id;
+
+    @Schema(description = "Mensaje de error, null si no hubo error", example = "La solicitud es invalida")
+    private String mensaje;
+
+    public EstadoCreacion() {}
+
+    public EstadoCreacion(String seguimiento, String estado, Long id, String mensaje) {
+        this.seguimiento = seguimiento;
+        this.estado = estado;
+        this.id = id;
+        this.mensaje = mensaje;
+    }
+
+    public static EstadoCreacion pendiente(String seguimiento) {
+        return new EstadoCreacion(seguimiento, PENDIENTE, null, null);
+    }
+
+    public static EstadoCreacion persistido(String seguimiento, Long id) {
+        return new EstadoCreacion(seguimiento, PERSISTIDO, id, null);
+    }
+
+    public static EstadoCreacion error(String seguimiento, String mensaje) {
+        return new EstadoCreacion(seguimiento, ERROR, null, mensaje);
+    }
+
+    public String getSeguimiento() {
+        return seguimiento;
+    }
+
+    public void setSeguimiento(String seguimiento) {
+        this.seguimiento = seguimiento;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+}
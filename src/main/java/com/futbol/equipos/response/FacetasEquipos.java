@@ -0,0 +1,38 @@
+package com.futbol.equipos.response;
+
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Cantidad de equipos por liga y por país")
+public class FacetasEquipos {
+
+    @Schema(description = "Cantidad de equipos por liga, ordenadas por nombre", example = "{\"Bundesliga\": 2, \"La Liga\": 3}")
+    private Map<String, Long> liga;
+
+    @Schema(description = "Cantidad de equipos por país, ordenados por nombre", example = "{\"Alemania\": 2, \"España\": 3}")
+    private Map<String, Long> pais;
+
+    public FacetasEquipos() {}
+
+    public FacetasEquipos(Map<String, Long> liga, Map<String, Long> pais) {
+        this.liga = liga;
+        this.pais = pais;
+    }
+
+    public Map<String, Long> getLiga() {
+        return liga;
+    }
+
+    public void setLiga(Map<String, Long> liga) {
+        this.liga = liga;
+    }
+
+    public Map<String, Long> getPais() {
+        return pais;
+    }
+
+    public void setPais(Map<String, Long> pais) {
+        this.pais = pais;
+    }
+}
@@ -0,0 +1,36 @@
+package com.futbol.equipos.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Fila de un CSV importado que no se pudo crear")
+public class FilaRechazada {
+
+    @Schema(description = "Línea del archivo en la que empieza la fila", example = "12")
+    private int linea;
+
+    @Schema(description = "Motivo del rechazo", example = "La solicitud es invalida")
+    private String mensaje;
+
+    public FilaRechazada() {}
+
+    public FilaRechazada(int linea, String mensaje) {
+        this.linea = linea;
+        this.mensaje = mensaje;
+    }
+
+    public int getLinea() {
+        return linea;
+    }
+
+    public void setLinea(int linea) {
+        this.linea = linea;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+}
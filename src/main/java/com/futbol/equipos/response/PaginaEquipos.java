@@ -0,0 +1,50 @@
+package com.futbol.equipos.response;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Página de equipos obtenida mediante paginación por cursor")
+public class PaginaEquipos {
+
+    @Schema(description = "Equipos de la página")
+    private List<EquipoResponse> equipos;
+
+    @Schema(description = "Cursor opaco para pedir la página siguiente, null si no hay más resultados", example = "bm9tYnJlfFJlYWwgTWFkcmlkfDE")
+    private String siguienteCursor;
+
+    @Schema(description = "Cantidad máxima de equipos por página", example = "20")
+    private int limite;
+
+    public PaginaEquipos() {}
+
+    public PaginaEquipos(List<EquipoResponse> equipos, String siguienteCursor, int limite) {
+        this.equipos = equipos;
+        this.siguienteCursor = siguienteCursor;
+        this.limite = limite;
+    }
+
+    public List<EquipoResponse> getEquipos() {
+        return equipos;
+    }
+
+    public void setEquipos(List<EquipoResponse> equipos) {
+        this.equipos = equipos;
+    }
+
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public void setSiguienteCursor(String siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public void setLimite(int limite) {
+        this.limite = limite;
+    }
+}
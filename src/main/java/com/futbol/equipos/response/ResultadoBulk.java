@@ -0,0 +1,72 @@
+package com.futbol.equipos.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Resultado de una operación dentro de una solicitud bulk")
+public class ResultadoBulk {
+
+    @Schema(description = "Posición de la operación en la solicitud", example = "0")
+    private int indice;
+
+    @Schema(description = "Tipo de operación solicitada", example = "crear")
+    private String operacion;
+
+    @Schema(description = "ID del equipo afectado", example = "25")
+    private Long id;
+
+    @Schema(description = "Código HTTP equivalente al resultado de la operación", example = "201")
+    private int codigo;
+
+    @Schema(description = "Mensaje de error, null si la operación se aplicó", example = "Equipo no encontrado.")
+    private String mensaje;
+
+    public ResultadoBulk() {}
+
+    public ResultadoBulk(int indice, String operacion, Long id, int codigo, String mensaje) {
+        this.indice = indice;
+        this.operacion = operacion;
+        this.id = id;
+        this.codigo = codigo;
+        this.mensaje = mensaje;
+    }
+
+    public int getIndice() {
+        return indice;
+    }
+
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+
+    public String getOperacion() {
+        return operacion;
+    }
+
+    public void setOperacion(String operacion) {
+        this.operacion = operacion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public int getCodigo() {
+        return codigo;
+    }
+
+    public void setCodigo(int codigo) {
+        this.codigo = codigo;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+}
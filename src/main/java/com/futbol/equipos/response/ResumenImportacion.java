@@ -0,0 +1,56 @@
+package com.futbol.equipos.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Resumen de una importación de equipos desde CSV")
+public class ResumenImportacion {
+
+    @Schema(description = "Cantidad de filas creadas", example = "9998")
+    private long aceptadas;
+
+    @Schema(description = "Cantidad de filas rechazadas", example = "2")
+    private long rechazadas;
+
+    @Schema(description = "Filas rechazadas con su línea y motivo; se informan como máximo las primeras equipos.import.maximo-rechazos")
+    private List<FilaRechazada> rechazos = new ArrayList<>();
+
+    @Schema(description = "Cantidad de filas rechazadas que no se detallan en rechazos", example = "0")
+    private long rechazosOmitidos;
+
+    public ResumenImportacion() {}
+
+    public long getAceptadas() {
+        return aceptadas;
+    }
+
+    public void setAceptadas(long aceptadas) {
+        this.aceptadas = aceptadas;
+    }
+
+    public long getRechazadas() {
+        return rechazadas;
+    }
+
+    public void setRechazadas(long rechazadas) {
+        this.rechazadas = rechazadas;
+    }
+
+    public List<FilaRechazada> getRechazos() {
+        return rechazos;
+    }
+
+    public void setRechazos(List<FilaRechazada> rechazos) {
+        this.rechazos = rechazos;
+    }
+
+    public long getRechazosOmitidos() {
+        return rechazosOmitidos;
+    }
+
+    public void setRechazosOmitidos(long rechazosOmitidos) {
+        this.rechazosOmitidos = rechazosOmitidos;
+    }
+}
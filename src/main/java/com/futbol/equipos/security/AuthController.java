@@ -10,6 +10,7 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
 import com.futbol.equipos.request.AuthRequest;
+import com.futbol.equipos.request.RefreshRequest;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -29,10 +30,14 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private RefreshTokens refreshTokens;
+
     /**
      * Endpoint para autenticar a un usuario y generar un token JWT.
      * Este método permite al usuario enviar sus credenciales (nombre de usuario y contraseña)
-     * para autenticarse. Si las credenciales son correctas, se genera y devuelve un token JWT.
+     * para autenticarse. Si las credenciales son correctas, se genera y devuelve un token JWT,
+     * junto con un refresh token para renovarlo en /auth/refresh sin volver a enviar la contraseña.
      * En caso de credenciales inválidas, se devuelve una respuesta con código 401 (UNAUTHORIZED).
      *
      * @param authRequest objeto que contiene las credenciales del usuario (nombre de usuario y contraseña)
@@ -40,7 +45,7 @@ public class AuthController {
      */
     @Operation(summary = "Login", description = "Autenticar user con nombre de usuario y contraseña y generar token")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Token JWT generado con éxito"),
+        @ApiResponse(responseCode = "200", description = "Token JWT y refresh token generados con éxito"),
         @ApiResponse(responseCode = "401", description = "Credenciales inválidas")
     })
     @PostMapping("/login")
@@ -60,6 +65,7 @@ public class AuthController {
             // retorna token generado y respuesta OK 200
             Map<String, String> response = new HashMap<>();
             response.put("token", token);
+            response.put("refreshToken", refreshTokens.emitir(authentication.getName()));
             return ResponseEntity.ok(response);
 
         } catch (AuthenticationException e) {
@@ -69,4 +75,32 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
         }
     }
+
+    /**
+     * Endpoint para renovar el token JWT con un refresh token, sin verificar la contraseña.
+     * Cada refresh token se canjea una sola vez: la respuesta incluye el que lo reemplaza.
+     * Presentar uno ya canjeado revoca todos los refresh tokens de ese login.
+     *
+     * @param refreshRequest objeto que contiene el refresh token
+     * @return ResponseEntity con el nuevo token JWT y el nuevo refresh token, o 401 si el refresh token no es válido
+     */
+    @Operation(summary = "Renovar token", description = "Canjear un refresh token por un token JWT nuevo y otro refresh token")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Token JWT renovado con éxito"),
+        @ApiResponse(responseCode = "401", description = "Refresh token inválido, vencido o ya utilizado")
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, String>> refresh(@RequestBody RefreshRequest refreshRequest) {
+        RefreshTokens.Renovacion renovacion = refreshTokens.renovar(refreshRequest.getRefreshToken());
+        if (renovacion == null) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Refresh token invalido");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+        }
+
+        Map<String, String> response = new HashMap<>();
+        response.put("token", jwtUtil.generateToken(renovacion.usuario()));
+        response.put("refreshToken", renovacion.refreshToken());
+        return ResponseEntity.ok(response);
+    }
 }
@@ -1,6 +1,8 @@
 package com.futbol.equipos.security;
 
 import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,11 +29,23 @@ public class AuthFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private TokenCache tokenCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public static final String TIMER_VERIFICACION = "equipos.jwt.verificacion";
+
     /**
      * Filtro de autenticación JWT que intercepta las solicitudes HTTP para validar el token JWT.
      * Este método verifica si la solicitud incluye un encabezado de autorización con un token
      * válido. Si el token es válido, se autentica al usuario configurando el contexto de seguridad.
+     * Los tokens ya verificados se guardan en caché junto con el usuario, por lo que las solicitudes
+     * siguientes con el mismo token no repiten la verificación de firma ni la búsqueda del usuario.
      * En caso de un token inválido o ausente, se lanza una excepción personalizada.
+     * La verificación se mide en el timer equipos.jwt.verificacion, etiquetado con el resultado:
+     * cache (token ya verificado), verificado o rechazado.
      *
      * @param request  la solicitud HTTP entrante
      * @param response la respuesta HTTP que se enviará al cliente
@@ -46,22 +60,33 @@ public class AuthFilter extends OncePerRequestFilter {
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             String token = authorizationHeader.substring(7);
+            Timer.Sample muestra = Timer.start(meterRegistry);
+            String resultado = "rechazado";
             try {
-                // Validar y obtener claims del token
-                Claims claims = jwtUtil.getParser().parseClaimsJws(token).getBody();
-                String username = claims.getSubject();
+                UserDetails userDetails = tokenCache.obtener(token);
+                if (userDetails != null) {
+                    resultado = "cache";
+                } else {
+                    // Validar y obtener claims del token
+                    Claims claims = jwtUtil.getParser().parseClaimsJws(token).getBody();
+                    String username = claims.getSubject();
 
-                // Cargar los detalles del usuario
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    // Cargar los detalles del usuario y recordar el token verificado
+                    userDetails = userDetailsService.loadUserByUsername(username);
+                    tokenCache.guardar(token, userDetails, claims.getExpiration());
+                    resultado = "verificado";
+                }
 
                 // Configurar la autenticación en el contexto de seguridad
                 UsernamePasswordAuthenticationToken authenticationToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             } catch (AuthenticationException e) {
-            // Lanza una excepción personalizada en lugar de escribir directamente la respuesta
-            throw new CustomizableException("Debe autenticarse para acceder a este endpoint", 401);
-        }
+                // Lanza una excepción personalizada en lugar de escribir directamente la respuesta
+                throw new CustomizableException("Debe autenticarse para acceder a este endpoint", 401);
+            } finally {
+                muestra.stop(meterRegistry.timer(TIMER_VERIFICACION, "resultado", resultado));
+            }
         }
 
         // Continuar con el filtro
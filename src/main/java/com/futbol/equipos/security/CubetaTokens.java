@@ -0,0 +1,52 @@
+package com.futbol.equipos.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cubeta de tokens sin bloqueos: admite ráfagas de hasta capacidad solicitudes y se recarga a razón de
+ * capacidad tokens por periodo. En lugar de contar tokens guarda un único instante, el momento en que la
+ * cubeta vuelve a estar llena; consumir un token lo corre un intervalo (periodo / capacidad) con compareAndSet.
+ * Los instantes son de System.nanoTime().
+ */
+public final class CubetaTokens {
+
+    /* Nanosegundos que tarda en recargarse un token */
+    private final long intervalo;
+
+    /* Nanosegundos que tarda en recargarse la cubeta vacía */
+    private final long recargaCompleta;
+
+    private final AtomicLong llena;
+
+    /**
+     * @param capacidad Tokens de la cubeta llena.
+     * @param periodo Tiempo en que se recarga la cubeta completa.
+     * @param ahora Instante de creación; la cubeta empieza llena.
+     */
+    public CubetaTokens(int capacidad, Duration periodo, long ahora) {
+        this.intervalo = Math.max(1, periodo.toNanos() / capacidad);
+        this.recargaCompleta = intervalo * capacidad;
+        this.llena = new AtomicLong(ahora);
+    }
+
+    /**
+     * Consume un token si hay alguno disponible.
+     *
+     * @param ahora Instante actual.
+     * @return 0 si se consumió el token, o los nanosegundos que faltan para que haya uno.
+     */
+    public long consumir(long ahora) {
+        while (true) {
+            long actual = llena.get();
+            long siguiente = (actual - ahora < 0 ? ahora : actual) + intervalo;
+            long espera = siguiente - ahora - recargaCompleta;
+            if (espera > 0) {
+                return espera;
+            }
+            if (llena.compareAndSet(actual, siguiente)) {
+                return 0;
+            }
+        }
+    }
+}
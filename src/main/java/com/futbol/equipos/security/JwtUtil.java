@@ -5,6 +5,7 @@ import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,17 +18,26 @@ public class JwtUtil {
 
     private final Key key;
 
+    private final JwtParser parser;
+
+    private final long duracionMillis;
+
     /**
      * Constructor que inicializa la clave de firma JWT utilizando una clave secreta.
      * 
      * @param secretKey La clave secreta configurada en las propiedades (security.jwt.secret-key).
+     * @param duracion Tiempo de validez de cada token (security.jwt.duracion); al vencer se renueva con /auth/refresh.
      * @throws RuntimeException Si la clave secreta no está configurada o es inválida.
      */
-    public JwtUtil(@Value("${security.jwt.secret-key}") String secretKey) {
+    public JwtUtil(@Value("${security.jwt.secret-key}") String secretKey, @Value("${security.jwt.duracion:10h}") Duration duracion) {
         if (secretKey == null || secretKey.isBlank()) {
             throw new RuntimeException("La clave secreta para JWT no está configurada");
         }
         this.key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.duracionMillis = duracion.toMillis();
     }
 
     /**
@@ -37,7 +47,7 @@ public class JwtUtil {
      * @return El nombre de usuario contenido en el token.
      */
     public String extractUsername(String token) {
-        return getParser().parseClaimsJws(token).getBody().getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
     /**
@@ -63,20 +73,19 @@ public class JwtUtil {
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10 horas
+                .setExpiration(new Date(System.currentTimeMillis() + duracionMillis))
                 .signWith(key)
                 .compact();
     }
 
     /**
-     * Obtiene un parser configurado para analizar y validar tokens JWT.
+     * Obtiene el parser configurado para analizar y validar tokens JWT.
+     * Se construye una única vez; es inmutable y puede compartirse entre hilos.
      * 
      * @return Un objeto JwtParser configurado con la clave de firma.
      */
     public JwtParser getParser() {
-        return Jwts.parserBuilder()
-                .setSigningKey(key) 
-                .build(); 
+        return parser;
     }
 
     /**
@@ -87,7 +96,7 @@ public class JwtUtil {
      */
     public boolean validateToken(String token) {
         try {
-            getParser().parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -0,0 +1,134 @@
+package com.futbol.equipos.security;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limita las solicitudes de cada cliente con una cubeta de tokens por cliente y ruta. El cliente es el usuario
+ * autenticado por AuthFilter o, sin token (por ejemplo en /auth/login), la IP de origen. Cada regla de
+ * equipos.limite.rutas tiene la forma patrón=capacidad/periodo y se aplica la primera cuyo patrón coincide;
+ * las rutas que no coinciden con ninguna no se limitan. Al agotar la cubeta se responde 429 con Retry-After.
+ * Las cubetas se guardan en una caché acotada (equipos.limite.clientes-maximos) que descarta las inactivas.
+ */
+@Component
+public class LimiteSolicitudes extends OncePerRequestFilter {
+
+    public static final String CONTADOR_RECHAZOS = "equipos.limite.rechazos";
+
+    private final List<Regla> reglas = new ArrayList<>();
+
+    private final Cache<Clave, CubetaTokens> cubetas;
+
+    private final AntPathMatcher rutas = new AntPathMatcher();
+
+    private final AuthEntryPoint authEntryPoint;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param reglas Reglas patrón=capacidad/periodo (equipos.limite.rutas); vacío desactiva el límite.
+     * @param clientesMaximos Cantidad máxima de cubetas guardadas (equipos.limite.clientes-maximos).
+     * @param inactividad Tiempo sin solicitudes tras el que se descarta la cubeta de un cliente
+     *        (equipos.limite.inactividad); debe ser al menos el periodo de cada regla.
+     * @param authEntryPoint Escribe la respuesta de error.
+     * @param meterRegistry Registro del contador de solicitudes rechazadas.
+     */
+    public LimiteSolicitudes(@Value("${equipos.limite.rutas:}") List<String> reglas,
+            @Value("${equipos.limite.clientes-maximos:100000}") long clientesMaximos,
+            @Value("${equipos.limite.inactividad:10m}") Duration inactividad,
+            AuthEntryPoint authEntryPoint, MeterRegistry meterRegistry) {
+        for (String regla : reglas) {
+            if (!regla.isBlank()) {
+                this.reglas.add(Regla.parse(regla.trim()));
+            }
+        }
+        for (Regla regla : this.reglas) {
+            if (regla.periodo().compareTo(inactividad) > 0) {
+                // una cubeta descartada antes de recargarse por completo le devolvería tokens al cliente
+                throw new IllegalArgumentException("equipos.limite.inactividad debe ser al menos el periodo de " + regla.patron());
+            }
+        }
+        this.cubetas = Caffeine.newBuilder()
+                .maximumSize(clientesMaximos)
+                .expireAfterAccess(inactividad)
+                .build();
+        this.authEntryPoint = authEntryPoint;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        for (int i = 0; i < reglas.size(); i++) {
+            Regla regla = reglas.get(i);
+            if (rutas.match(regla.patron(), ruta)) {
+                long ahora = System.nanoTime();
+                CubetaTokens cubeta = cubetas.get(new Clave(cliente(request), i),
+                        clave -> new CubetaTokens(regla.capacidad(), regla.periodo(), ahora));
+                long espera = cubeta.consumir(ahora);
+                if (espera > 0) {
+                    meterRegistry.counter(CONTADOR_RECHAZOS, "ruta", regla.patron()).increment();
+                    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(TimeUnit.NANOSECONDS.toSeconds(espera + 999_999_999)));
+                    authEntryPoint.enviarRespuestaPersonalizada(response, 429, "Demasiadas solicitudes, reintente mas tarde");
+                    return;
+                }
+                break;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Identifica al cliente: el usuario autenticado o, si no hay, la IP de origen.
+     */
+    private static String cliente(HttpServletRequest request) {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacion != null && autenticacion.isAuthenticated() && !(autenticacion instanceof AnonymousAuthenticationToken)
+                ? "usuario:" + autenticacion.getName()
+                : "ip:" + request.getRemoteAddr();
+    }
+
+    private record Clave(String cliente, int regla) {
+    }
+
+    private record Regla(String patron, int capacidad, Duration periodo) {
+
+        /* Interpreta una regla patrón=capacidad/periodo, por ejemplo /equipos/buscar=20/1s */
+        private static Regla parse(String regla) {
+            int igual = regla.lastIndexOf('=');
+            int barra = regla.lastIndexOf('/');
+            if (igual <= 0 || barra < igual) {
+                throw new IllegalArgumentException("Regla de equipos.limite.rutas inválida: " + regla);
+            }
+            int capacidad = Integer.parseInt(regla.substring(igual + 1, barra).trim());
+            Duration periodo = DurationStyle.detectAndParse(regla.substring(barra + 1).trim());
+            if (capacidad <= 0 || periodo.isZero() || periodo.isNegative()) {
+                throw new IllegalArgumentException("Regla de equipos.limite.rutas inválida: " + regla);
+            }
+            return new Regla(regla.substring(0, igual).trim(), capacidad, periodo);
+        }
+    }
+}
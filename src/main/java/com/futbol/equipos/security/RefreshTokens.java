@@ -0,0 +1,126 @@
+package com.futbol.equipos.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Refresh tokens opacos, que se canjean por un nuevo token JWT sin volver a verificar la contraseña.
+ * Cada login abre una familia y cada canje la rota: devuelve un refresh token nuevo e invalida el anterior.
+ * Si se presenta un refresh token ya rotado (por ejemplo, uno robado que el cliente legítimo ya usó) se
+ * revoca la familia completa y ambos deben volver a autenticarse con la contraseña.
+ * Por familia solo se guarda el usuario y el SHA-256 del refresh token vigente, en una caché acotada
+ * (security.refresh.tamanio-maximo) cuyas entradas expiran si no se canjean en security.refresh.duracion.
+ * Las familias viven en memoria: al reiniciar la aplicación los clientes vuelven a hacer login.
+ */
+@Component
+public class RefreshTokens {
+
+    public static final String CONTADOR_RENOVACIONES = "equipos.jwt.renovacion";
+
+    /* Bytes aleatorios del id de familia y del secreto de cada refresh token */
+    private static final int LONGITUD = 16;
+
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecureRandom aleatorio = new SecureRandom();
+
+    private final Cache<String, Familia> familias;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param tamanioMaximo Cantidad máxima de familias guardadas (security.refresh.tamanio-maximo).
+     * @param duracion Tiempo que un refresh token sigue siendo canjeable sin usarse (security.refresh.duracion).
+     * @param meterRegistry Registro del contador de canjes, por resultado.
+     */
+    public RefreshTokens(@Value("${security.refresh.tamanio-maximo:100000}") long tamanioMaximo,
+            @Value("${security.refresh.duracion:30d}") Duration duracion, MeterRegistry meterRegistry) {
+        this.familias = Caffeine.newBuilder()
+                .maximumSize(tamanioMaximo)
+                .expireAfterWrite(duracion)
+                .build();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Abre una familia para el usuario recién autenticado.
+     *
+     * @param usuario Nombre del usuario.
+     * @return El primer refresh token de la familia.
+     */
+    public String emitir(String usuario) {
+        String familia = aleatorio();
+        String secreto = aleatorio();
+        familias.put(familia, new Familia(usuario, digest(secreto)));
+        return familia + "." + secreto;
+    }
+
+    /**
+     * Canjea un refresh token y rota la familia.
+     *
+     * @param refreshToken El refresh token presentado por el cliente.
+     * @return El usuario y el refresh token que reemplaza al presentado, o null si no es válido.
+     */
+    public Renovacion renovar(String refreshToken) {
+        int punto = refreshToken == null ? -1 : refreshToken.indexOf('.');
+        if (punto <= 0) {
+            contar("rechazado");
+            return null;
+        }
+        String familia = refreshToken.substring(0, punto);
+        byte[] presentado = digest(refreshToken.substring(punto + 1));
+        String secreto = aleatorio();
+        Renovacion[] renovacion = new Renovacion[1];
+        boolean[] reutilizado = new boolean[1];
+        // compute es atómico por familia: de dos canjes simultáneos del mismo token solo uno rota
+        familias.asMap().computeIfPresent(familia, (clave, actual) -> {
+            if (!MessageDigest.isEqual(actual.vigente, presentado)) {
+                reutilizado[0] = true;
+                return null;
+            }
+            renovacion[0] = new Renovacion(actual.usuario, familia + "." + secreto);
+            return new Familia(actual.usuario, digest(secreto));
+        });
+        contar(renovacion[0] != null ? "renovado" : reutilizado[0] ? "reutilizado" : "rechazado");
+        return renovacion[0];
+    }
+
+    private void contar(String resultado) {
+        meterRegistry.counter(CONTADOR_RENOVACIONES, "resultado", resultado).increment();
+    }
+
+    private String aleatorio() {
+        byte[] bytes = new byte[LONGITUD];
+        aleatorio.nextBytes(bytes);
+        return BASE64.encodeToString(bytes);
+    }
+
+    private static byte[] digest(String secreto) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(secreto.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Resultado de un canje: el usuario para quien generar el token JWT y el refresh token nuevo.
+     */
+    public record Renovacion(String usuario, String refreshToken) {
+    }
+
+    private record Familia(String usuario, byte[] vigente) {
+    }
+}
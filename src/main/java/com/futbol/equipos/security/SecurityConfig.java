@@ -28,22 +28,26 @@ public class SecurityConfig {
      *   Autorización de solicitudes: permite acceso público a ciertos endpoints y exige autenticación para el resto.
      *   Establecimiento de una política de sesiones stateless
      *   Incorporación de un filtro personalizado para manejar tokens JWT.
+     *   Límite de solicitudes por cliente, después de autenticarlo.
      *   Manejo de excepciones de autenticación mediante un EntryPoint personalizado.
      * 
      * @param http                 Configuración de seguridad de Spring.
      * @param jwtAuthenticationFilter Filtro personalizado para autenticación basada en JWT.
+     * @param limiteSolicitudes    Filtro que limita las solicitudes de cada cliente.
      * @param authEntryPoint       EntryPoint personalizado para manejar errores de autenticación.
      * @return La cadena de filtros configurada.
      * @throws Exception Si ocurre algún error durante la configuración.
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthFilter jwtAuthenticationFilter, AuthEntryPoint authEntryPoint) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthFilter jwtAuthenticationFilter, LimiteSolicitudes limiteSolicitudes,
+            AuthEntryPoint authEntryPoint) throws Exception {
         return http
                 .cors(cors -> cors.configurationSource(request -> {
                     var config = new org.springframework.web.cors.CorsConfiguration();
                     config.setAllowedOrigins(List.of("http://localhost:8088"));
-                    config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-                    config.setAllowedHeaders(List.of("*")); 
+                    config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
+                    config.setAllowedHeaders(List.of("*")); // incluye If-Match e If-None-Match
+                    config.setExposedHeaders(List.of("ETag")); // para enviarlo luego en If-Match
                     config.setAllowCredentials(true);
                     return config;
                 }))
@@ -54,6 +58,7 @@ public class SecurityConfig {
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // Stateless
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class) // Agrega filtro JWT
+                .addFilterAfter(limiteSolicitudes, AuthFilter.class) // Limita por usuario autenticado o IP
                 .exceptionHandling(ex -> ex.authenticationEntryPoint(authEntryPoint)) // tira excepción si error en autenticación
                 .build();
     }
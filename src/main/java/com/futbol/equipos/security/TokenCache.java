@@ -0,0 +1,111 @@
+package com.futbol.equipos.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/* Caché de tokens JWT ya verificados */
+@Component
+public class TokenCache {
+
+    private final Cache<String, TokenVerificado> cache;
+
+    private final long ttlMaximoNanos;
+
+    /**
+     * Crea la caché de tokens verificados.
+     *
+     * @param tamanioMaximo Cantidad máxima de tokens guardados (security.jwt.cache.tamanio-maximo); 0 desactiva la caché.
+     * @param ttlMaximo Tiempo máximo que se confía en un token sin volver a verificarlo (security.jwt.cache.ttl-maximo).
+     */
+    public TokenCache(@Value("${security.jwt.cache.tamanio-maximo:10000}") long tamanioMaximo,
+            @Value("${security.jwt.cache.ttl-maximo:5m}") Duration ttlMaximo) {
+        this.ttlMaximoNanos = ttlMaximo.toNanos();
+        this.cache = tamanioMaximo <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(tamanioMaximo)
+                .expireAfter(new ExpiraConElToken())
+                .build();
+    }
+
+    /**
+     * Obtiene el usuario asociado a un token verificado previamente.
+     *
+     * @param token El token JWT recibido.
+     * @return Los detalles del usuario, o null si el token no está en caché o ya expiró.
+     */
+    public UserDetails obtener(String token) {
+        if (cache == null) {
+            return null;
+        }
+        TokenVerificado verificado = cache.getIfPresent(digest(token));
+        return verificado == null || verificado.expiraEn <= System.currentTimeMillis() ? null : verificado.usuario;
+    }
+
+    /**
+     * Guarda un token cuya firma ya fue verificada, junto con el usuario que representa.
+     * La entrada expira a más tardar cuando expira el token.
+     *
+     * @param token El token JWT verificado.
+     * @param usuario Los detalles del usuario del token.
+     * @param expiracion La fecha de expiración (claim exp) del token.
+     */
+    public void guardar(String token, UserDetails usuario, Date expiracion) {
+        if (cache == null || expiracion == null) {
+            return;
+        }
+        cache.put(digest(token), new TokenVerificado(usuario, expiracion.getTime()));
+    }
+
+    /**
+     * Calcula el digest SHA-256 del token, para no guardar tokens en claro como claves.
+     */
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static final class TokenVerificado {
+        private final UserDetails usuario;
+        private final long expiraEn;
+
+        private TokenVerificado(UserDetails usuario, long expiraEn) {
+            this.usuario = usuario;
+            this.expiraEn = expiraEn;
+        }
+    }
+
+    /* Expira cada entrada en el menor tiempo entre el exp del token y el TTL máximo */
+    private final class ExpiraConElToken implements Expiry<String, TokenVerificado> {
+
+        @Override
+        public long expireAfterCreate(String clave, TokenVerificado valor, long ahora) {
+            long restante = Duration.ofMillis(valor.expiraEn - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(restante, ttlMaximoNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String clave, TokenVerificado valor, long ahora, long duracionActual) {
+            return expireAfterCreate(clave, valor, ahora);
+        }
+
+        @Override
+        public long expireAfterRead(String clave, TokenVerificado valor, long ahora, long duracionActual) {
+            return duracionActual;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.futbol.equipos.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import com.futbol.equipos.exception.CustomizableException;
+import com.futbol.equipos.response.EquipoResponse;
+
+/**
+ * Codifica y decodifica los cursores opacos usados en la paginación keyset de equipos.
+ * El cursor guarda el campo de orden, el valor de ese campo y el id del último equipo devuelto.
+ */
+final class EquipoCursor {
+
+    private static final String SEPARADOR = "|";
+
+    private EquipoCursor() {}
+
+    /**
+     * Genera el cursor que apunta a continuación del equipo indicado.
+     *
+     * @param orden Campo por el que se ordena la paginación.
+     * @param ultimo Último equipo de la página actual.
+     * @return El cursor codificado en Base64 URL-safe.
+     */
+    static String codificar(String orden, EquipoResponse ultimo) {
+        String crudo = orden + SEPARADOR + valorDe(orden, ultimo) + SEPARADOR + ultimo.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(crudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Convierte un cursor en la posición keyset desde la cual continuar.
+     *
+     * @param orden Campo por el que se ordena la paginación.
+     * @param cursor Cursor recibido del cliente, o null para la primera página.
+     * @return La posición de scroll correspondiente.
+     * @throws CustomizableException Si el cursor es inválido o fue generado con otro orden.
+     */
+    static KeysetScrollPosition decodificar(String orden, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        String crudo;
+        try {
+            crudo = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new CustomizableException("Cursor invalido", 400);
+        }
+
+        int primero = crudo.indexOf(SEPARADOR);
+        int ultimo = crudo.lastIndexOf(SEPARADOR);
+        if (primero < 0 || primero == ultimo || !crudo.substring(0, primero).equals(orden)) {
+            throw new CustomizableException("Cursor invalido", 400);
+        }
+
+        Long id;
+        try {
+            id = Long.valueOf(crudo.substring(ultimo + 1));
+        } catch (NumberFormatException e) {
+            throw new CustomizableException("Cursor invalido", 400);
+        }
+
+        Map<String, Object> claves = new LinkedHashMap<>();
+        if (!"id".equals(orden)) {
+            claves.put(orden, crudo.substring(primero + 1, ultimo));
+        }
+        claves.put("id", id);
+        return ScrollPosition.forward(claves);
+    }
+
+    private static Object valorDe(String orden, EquipoResponse equipo) {
+        switch (orden) {
+            case "nombre":
+                return equipo.nombre();
+            case "liga":
+                return equipo.liga();
+            case "pais":
+                return equipo.pais();
+            default:
+                return equipo.id();
+        }
+    }
+}
@@ -1,33 +1,276 @@
 package com.futbol.equipos.service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.futbol.equipos.cache.CacheConfig;
 import com.futbol.equipos.entity.Equipo;
+import com.futbol.equipos.evento.EquipoCambio;
 import com.futbol.equipos.exception.CustomizableException;
+import com.futbol.equipos.indice.EquipoFacetas;
+import com.futbol.equipos.indice.EquipoNombreIndice;
+import com.futbol.equipos.replica.RuteoDataSource;
+import com.futbol.equipos.repository.ConteoFaceta;
 import com.futbol.equipos.repository.EquipoRepository;
 import com.futbol.equipos.request.EquipoRequest;
+import com.futbol.equipos.request.OperacionBulk;
+import com.futbol.equipos.response.EquipoPorId;
+import com.futbol.equipos.response.EquipoResponse;
+import com.futbol.equipos.response.FacetasEquipos;
+import com.futbol.equipos.response.PaginaEquipos;
+import com.futbol.equipos.response.ResultadoBulk;
+import com.futbol.equipos.shard.Shards;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class EquipoService {
 
     private final EquipoRepository equipoRepository;
 
+    private final EquipoNombreIndice nombreIndice;
+
+    private final EquipoFacetas facetas;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Shards shards;
+
+    @Value("${equipos.bulk.tamanio-lote:50}")
+    private int tamanioLote = TAMANIO_LOTE_POR_DEFECTO;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public static Set<String> parametrosEsperados = Set.of("nombre", "liga", "pais");
 
-    public EquipoService(EquipoRepository equipoRepository) {
+    public static Set<String> operacionesBulk = Set.of("crear", "actualizar", "eliminar");
+
+    public static Set<String> ordenesPermitidos = Set.of("id", "nombre", "liga", "pais");
+
+    public static final int LIMITE_POR_DEFECTO = 20;
+
+    public static final int LIMITE_MAXIMO = 100;
+
+    public static final int TAMANIO_LOTE_POR_DEFECTO = 50;
+
+    public static final int MAXIMO_OPERACIONES_BULK = 10000;
+
+    public static final int MAXIMO_IDS = 10000;
+
+    /* IDs por consulta IN; con in_clause_parameter_padding cada bloque reutiliza uno de pocos planes */
+    public static final int TAMANIO_BLOQUE_IDS = 500;
+
+    private static final String PAIS_DE_OTRO_SHARD = "El pais no puede cambiar a uno de otro shard";
+
+    public EquipoService(EquipoRepository equipoRepository, EquipoNombreIndice nombreIndice, EquipoFacetas facetas,
+            ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate, Shards shards) {
         this.equipoRepository = equipoRepository;
+        this.nombreIndice = nombreIndice;
+        this.facetas = facetas;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.shards = shards;
     }
 
     /**
      * Obtiene todos los equipos de la base de datos.
      *
-     * @return Lista de todos los equipos.
+     * La lista se guarda en caché hasta la próxima escritura. Se lee en una transacción de solo lectura
+     * como proyección, por lo que Hibernate no crea entidades, snapshots ni revisa cambios al terminar.
+     * Con varios shards se consultan todos en paralelo y se concatenan: sus rangos de IDs ya están en orden.
+     *
+     * @return Lista de todos los equipos, ordenada por ID.
+     */
+    @Cacheable(cacheNames = CacheConfig.CACHE_EQUIPOS_TODOS, key = "'" + CacheConfig.CLAVE_TODOS + "'", sync = true)
+    @Transactional(readOnly = true, label = RuteoDataSource.REPLICA)
+    public List<EquipoResponse> findAll() {
+        return List.copyOf(concatenar(shards.reunir(shard -> equipoRepository.findAllByOrderByIdAsc())));
+    }
+
+    /**
+     * Obtiene una página de equipos usando paginación keyset (por cursor).
+     * Cada página se resuelve con una seek query ordenada por el campo indicado y desempatada por id,
+     * por lo que pedir la página N cuesta lo mismo que pedir la primera.
+     *
+     * @param cursor Cursor opaco devuelto en la página anterior, o null para la primera página.
+     * @param limite Cantidad máxima de equipos a devolver, o null para usar el valor por defecto.
+     * @param orden Campo por el que se ordena: id, nombre, liga o pais.
+     * @return La página de equipos junto con el cursor de la página siguiente.
+     * @throws CustomizableException Si el orden, el límite o el cursor son inválidos.
+     */
+    @Transactional(readOnly = true, label = RuteoDataSource.REPLICA)
+    public PaginaEquipos findPagina(String cursor, Integer limite, String orden) {
+        return findPagina(cursor, limite, orden, null, null);
+    }
+
+    /**
+     * Obtiene una página de equipos filtrada por liga y/o país usando paginación keyset (por cursor).
+     * Los filtros se resuelven con los índices sobre liga, pais y (pais, liga); el cursor
+     * debe usarse con los mismos filtros con los que se obtuvo. Los equipos se leen como proyección
+     * en una transacción de solo lectura.
+     *
+     * @param cursor Cursor opaco devuelto en la página anterior, o null para la primera página.
+     * @param limite Cantidad máxima de equipos a devolver, o null para usar el valor por defecto.
+     * @param orden Campo por el que se ordena: id, nombre, liga o pais.
+     * @param liga Liga exacta de los equipos, o null para no filtrar por liga.
+     * @param pais País exacto de los equipos, o null para no filtrar por país.
+     * @return La página de equipos junto con el cursor de la página siguiente.
+     * @throws CustomizableException Si el orden, el límite o el cursor son inválidos.
+     */
+    @Transactional(readOnly = true, label = RuteoDataSource.REPLICA)
+    public PaginaEquipos findPagina(String cursor, Integer limite, String orden, String liga, String pais) {
+        String campo = orden == null ? "id" : orden;
+        if (!ordenesPermitidos.contains(campo)) {
+            throw new CustomizableException("Orden invalido", 400);
+        }
+
+        int tamanio = limite == null ? LIMITE_POR_DEFECTO : limite;
+        if (tamanio < 1 || tamanio > LIMITE_MAXIMO) {
+            throw new CustomizableException("El limite debe estar entre 1 y " + LIMITE_MAXIMO, 400);
+        }
+
+        Window<EquipoResponse> ventana = buscarVentana(liga, pais,
+                EquipoCursor.decodificar(campo, cursor), ordenarPor(campo), Limit.of(tamanio));
+
+        String siguienteCursor = ventana.hasNext() && !ventana.isEmpty()
+                ? EquipoCursor.codificar(campo, ventana.getContent().get(ventana.size() - 1))
+                : null;
+        return new PaginaEquipos(ventana.getContent(), siguienteCursor, tamanio);
+    }
+
+    /**
+     * Obtiene todos los equipos de una liga y/o país, ordenados por ID, sin paginar ni usar la caché.
+     *
+     * @param liga Liga exacta de los equipos, o null para no filtrar por liga.
+     * @param pais País exacto de los equipos, o null para no filtrar por país.
+     * @return Lista de los equipos que cumplen los filtros.
+     */
+    @Transactional(readOnly = true, label = RuteoDataSource.REPLICA)
+    public List<EquipoResponse> findAllFiltrados(String liga, String pais) {
+        return buscarVentana(liga, pais, ScrollPosition.keyset(), Sort.by("id"), Limit.unlimited()).getContent();
+    }
+
+    /**
+     * Resuelve una ventana en el shard del país o, sin país, en todos los shards. Cada shard devuelve sus primeros
+     * equipos después de la posición, así que los primeros del total están entre ellos: se mezclan según el orden
+     * y se corta en el límite.
+     */
+    private Window<EquipoResponse> buscarVentana(String liga, String pais, ScrollPosition posicion, Sort orden, Limit limite) {
+        if (pais != null && !pais.isBlank()) {
+            return shards.enShard(shards.dePais(pais), () -> buscarVentanaEnShard(liga, pais, posicion, orden, limite));
+        }
+        List<Window<EquipoResponse>> ventanas = shards.reunir(shard -> buscarVentanaEnShard(liga, pais, posicion, orden, limite));
+        if (ventanas.size() == 1) {
+            return ventanas.get(0);
+        }
+        List<EquipoResponse> equipos = new ArrayList<>();
+        boolean hayMas = false;
+        for (Window<EquipoResponse> ventana : ventanas) {
+            equipos.addAll(ventana.getContent());
+            hayMas |= ventana.hasNext();
+        }
+        equipos.sort(comparadorDe(orden));
+        if (limite.isLimited() && equipos.size() > limite.max()) {
+            equipos = equipos.subList(0, limite.max());
+            hayMas = true;
+        }
+        return Window.from(equipos, ScrollPosition::offset, hayMas);
+    }
+
+    /**
+     * Compara equipos con el mismo orden que la consulta: el campo solicitado y luego el id.
+     */
+    private static Comparator<EquipoResponse> comparadorDe(Sort orden) {
+        Comparator<EquipoResponse> comparador = (a, b) -> 0;
+        for (Sort.Order campo : orden) {
+            Comparator<EquipoResponse> porCampo = switch (campo.getProperty()) {
+                case "nombre" -> Comparator.comparing(EquipoResponse::nombre);
+                case "liga" -> Comparator.comparing(EquipoResponse::liga);
+                case "pais" -> Comparator.comparing(EquipoResponse::pais);
+                default -> Comparator.comparing(EquipoResponse::id);
+            };
+            comparador = comparador.thenComparing(porCampo);
+        }
+        return comparador;
+    }
+
+    /**
+     * Elige la consulta del repositorio según los filtros indicados.
+     */
+    private Window<EquipoResponse> buscarVentanaEnShard(String liga, String pais, ScrollPosition posicion, Sort orden, Limit limite) {
+        boolean porLiga = liga != null && !liga.isBlank();
+        boolean porPais = pais != null && !pais.isBlank();
+        if (porLiga && porPais) {
+            return equipoRepository.findAllByPaisAndLiga(pais, liga, posicion, orden, limite);
+        }
+        if (porLiga) {
+            return equipoRepository.findAllByLiga(liga, posicion, orden, limite);
+        }
+        if (porPais) {
+            return equipoRepository.findAllByPais(pais, posicion, orden, limite);
+        }
+        return equipoRepository.findAllBy(posicion, orden, limite);
+    }
+
+    /**
+     * Construye el orden de una página: el campo solicitado seguido del id como desempate estable.
+     */
+    private static Sort ordenarPor(String campo) {
+        return "id".equals(campo) ? Sort.by("id") : Sort.by(campo, "id");
+    }
+
+    /**
+     * Recorre todos los equipos de la base de datos uno por uno mediante un cursor de solo avance.
+     * Cada equipo se desvincula del contexto de persistencia después de entregarlo, por lo que
+     * la memoria usada no depende del tamaño de la tabla. Si el consumidor lanza una excepción
+     * (por ejemplo, porque el cliente cortó la conexión) el cursor se cierra igualmente.
+     * Con varios shards se recorren uno después del otro, lo que mantiene el orden de ID.
+     *
+     * @param consumidor Acción a ejecutar sobre cada equipo, en orden de ID.
      */
-    public List<Equipo> findAll() {
-        return equipoRepository.findAll();
+    @Transactional(readOnly = true, label = RuteoDataSource.REPLICA)
+    public void recorrerTodos(Consumer<Equipo> consumidor) {
+        shards.recorrer(shard -> {
+            try (Stream<Equipo> equipos = equipoRepository.streamAllByOrderByIdAsc()) {
+                equipos.forEach(equipo -> {
+                    consumidor.accept(equipo);
+                    entityManager.detach(equipo);
+                });
+            }
+        });
     }
 
     /**
@@ -37,28 +280,81 @@ public class EquipoService {
      * @return El equipo encontrado.
      * @throws CustomizableException Si el equipo no existe.
      */
+    @Cacheable(cacheNames = CacheConfig.CACHE_EQUIPOS, key = "#id", sync = true)
+    @Transactional(readOnly = true, label = RuteoDataSource.REPLICA)
     public Equipo findById(Long id) {
-        return equipoRepository.findById(id)
+        return shards.enShard(shardDeEquipo(id), () -> equipoRepository.findById(id))
                 .orElseThrow(() -> new CustomizableException("Equipo no encontrado.", 404));
     }
 
     /**
-     * Guarda un nuevo equipo en la base de datos.
+     * Obtiene el shard de un equipo a partir de su ID.
+     *
+     * @throws CustomizableException 404 si el ID no corresponde a ningún shard.
+     */
+    private int shardDeEquipo(Long id) {
+        int shard = shards.deId(id);
+        if (shard < 0) {
+            throw new CustomizableException("Equipo no encontrado.", 404);
+        }
+        return shard;
+    }
+
+    /**
+     * Rechaza cambiar el país de un equipo a uno que vive en otro shard: el ID del equipo indica su shard.
+     */
+    private void verificarPais(int shard, String pais) {
+        if (pais != null && shards.dePais(pais) != shard) {
+            throw new CustomizableException(PAIS_DE_OTRO_SHARD, 409);
+        }
+    }
+
+    /**
+     * Guarda un nuevo equipo en la base de datos, en el shard de su país.
      *
      * @param equipo El equipo a guardar.
      * @return El equipo guardado.
      */
+    @Caching(
+        put = @CachePut(cacheNames = CacheConfig.CACHE_EQUIPOS, key = "#result.id"),
+        evict = @CacheEvict(cacheNames = CacheConfig.CACHE_EQUIPOS_TODOS, allEntries = true)
+    )
     public Equipo save(Equipo equipo) {
-        return equipoRepository.save(equipo);
+        boolean nuevo = equipo.getId() == null;
+        int shard = nuevo ? shards.dePais(equipo.getPais()) : shardDeEquipo(equipo.getId());
+        verificarPais(shard, equipo.getPais());
+        Equipo guardado = shards.enShard(shard, () -> equipoRepository.save(equipo));
+        eventPublisher.publishEvent(nuevo ? EquipoCambio.creado(guardado) : EquipoCambio.actualizado(guardado));
+        return guardado;
     }
 
     /**
      * Elimina un equipo de la base de datos por su ID.
+     * El cambio solo se publica si se eliminó una fila: un ID inexistente no debe llegar al flujo de cambios,
+     * al ETag de la lista ni al índice.
      *
      * @param id El ID del equipo a eliminar.
+     * @throws CustomizableException Si el equipo no existe o lo eliminó otra solicitud al mismo tiempo (404).
      */
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.CACHE_EQUIPOS, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.CACHE_EQUIPOS_TODOS, allEntries = true)
+    })
+    @Transactional
     public void deleteById(Long id) {
-        equipoRepository.deleteById(id);
+        shards.enShard(shardDeEquipo(id), () -> {
+            if (!equipoRepository.existsById(id)) {
+                throw new CustomizableException("Equipo no encontrado.", 404);
+            }
+            try {
+                equipoRepository.deleteById(id);
+                // el DELETE verifica la versión: si otra solicitud lo eliminó antes, no afecta filas y falla aquí
+                equipoRepository.flush();
+            } catch (ObjectOptimisticLockingFailureException e) {
+                throw new CustomizableException("Equipo no encontrado.", 404);
+            }
+        });
+        eventPublisher.publishEvent(EquipoCambio.eliminado(id));
     }
 
     /**
@@ -69,38 +365,384 @@ public class EquipoService {
      * @return El equipo actualizado.
      * @throws CustomizableException Si el equipo no existe o los datos son inválidos.
      */
+    @Caching(
+        put = @CachePut(cacheNames = CacheConfig.CACHE_EQUIPOS, key = "#id"),
+        evict = @CacheEvict(cacheNames = CacheConfig.CACHE_EQUIPOS_TODOS, allEntries = true)
+    )
     public Equipo updateEquipo(Long id, EquipoRequest equipoRequest) {
+        return updateEquipo(id, equipoRequest, null);
+    }
+
+    /**
+     * Actualiza un equipo existente solo si su versión coincide con la esperada por el cliente.
+     * La versión se verifica antes de escribir y nuevamente en el UPDATE (bloqueo optimista),
+     * por lo que una actualización concurrente nunca se pisa.
+     *
+     * @param id El ID del equipo a actualizar.
+     * @param equipoRequest Los datos actualizados del equipo.
+     * @param versionEsperada Versión que el cliente leyó, o null para no verificarla.
+     * @return El equipo actualizado.
+     * @throws CustomizableException Si el equipo no existe (404), los datos son inválidos (400),
+     *         el país nuevo corresponde a otro shard (409) o la versión no coincide (412).
+     */
+    @Caching(
+        put = @CachePut(cacheNames = CacheConfig.CACHE_EQUIPOS, key = "#id"),
+        evict = @CacheEvict(cacheNames = CacheConfig.CACHE_EQUIPOS_TODOS, allEntries = true)
+    )
+    public Equipo updateEquipo(Long id, EquipoRequest equipoRequest, Long versionEsperada) {
         // Validar los campos del request
         validarRequest(equipoRequest);
-    
-        // Intentar obtener el equipo o lanzar una excepción si no existe
-        Equipo equipoAActualizar = equipoRepository.findById(id)
-                .orElseThrow(() -> new CustomizableException("Equipo no encontrado.", 404));
-    
-        // Actualizar los valores del equipo
-        equipoAActualizar.setNombre(equipoRequest.getNombre());
-        equipoAActualizar.setLiga(equipoRequest.getLiga());
-        equipoAActualizar.setPais(equipoRequest.getPais());
-    
-        // Guardar los cambios y devolver el equipo actualizado
-        return equipoRepository.save(equipoAActualizar);
+        int shard = shardDeEquipo(id);
+
+        Equipo actualizado = shards.enShard(shard, () -> {
+            // Intentar obtener el equipo o lanzar una excepción si no existe
+            Equipo equipoAActualizar = equipoRepository.findById(id)
+                    .orElseThrow(() -> new CustomizableException("Equipo no encontrado.", 404));
+
+            // Rechazar la actualización si el cliente tiene una versión desactualizada
+            if (versionEsperada != null && !versionEsperada.equals(equipoAActualizar.getVersion())) {
+                throw new CustomizableException("El equipo fue modificado por otra solicitud", 412);
+            }
+            verificarPais(shard, equipoRequest.getPais());
+
+            // Actualizar los valores del equipo
+            equipoAActualizar.setNombre(equipoRequest.getNombre());
+            equipoAActualizar.setLiga(equipoRequest.getLiga());
+            equipoAActualizar.setPais(equipoRequest.getPais());
+
+            // Guardar los cambios y devolver el equipo actualizado
+            try {
+                return equipoRepository.save(equipoAActualizar);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                throw new CustomizableException("El equipo fue modificado por otra solicitud", 412);
+            }
+        });
+        eventPublisher.publishEvent(EquipoCambio.actualizado(actualizado));
+        return actualizado;
+    }
+
+    /**
+     * Actualiza solo los campos enviados de un equipo con un único UPDATE por ID, sin leerlo antes.
+     * Los campos null del request se conservan; los enviados no pueden estar vacíos.
+     * El resultado se decide por la cantidad de filas afectadas: si no hubo ninguna se consulta
+     * una sola vez si el equipo existe, para distinguir 404 de 412.
+     *
+     * @param id El ID del equipo a actualizar.
+     * @param cambios Los campos a modificar; al menos uno debe venir informado.
+     * @param versionEsperada Versión que el cliente leyó, o null para no verificarla.
+     * @throws CustomizableException Si los datos son inválidos (400), el equipo no existe (404),
+     *         el país nuevo corresponde a otro shard (409) o la versión no coincide (412).
+     */
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.CACHE_EQUIPOS, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.CACHE_EQUIPOS_TODOS, allEntries = true)
+    })
+    @Transactional
+    public void actualizarParcial(Long id, EquipoRequest cambios, Long versionEsperada) {
+        if (cambios == null || (cambios.getNombre() == null && cambios.getLiga() == null && cambios.getPais() == null)
+                || esVacio(cambios.getNombre()) || esVacio(cambios.getLiga()) || esVacio(cambios.getPais())) {
+            throw new CustomizableException("La solicitud es invalida", 400);
+        }
+
+        int shard = shardDeEquipo(id);
+        verificarPais(shard, cambios.getPais());
+        shards.enShard(shard, () -> {
+            int filas = equipoRepository.actualizarCampos(id, cambios.getNombre(), cambios.getLiga(), cambios.getPais(), versionEsperada);
+            if (filas == 0) {
+                if (versionEsperada != null && equipoRepository.existsById(id)) {
+                    throw new CustomizableException("El equipo fue modificado por otra solicitud", 412);
+                }
+                throw new CustomizableException("Equipo no encontrado.", 404);
+            }
+        });
+        eventPublisher.publishEvent(EquipoCambio.actualizadoParcial(id, cambios.getNombre(), cambios.getLiga(), cambios.getPais()));
+    }
+
+    /* Un campo enviado (no null) pero en blanco */
+    private static boolean esVacio(String valor) {
+        return valor != null && valor.trim().isEmpty();
+    }
+
+    /**
+     * Aplica una lista mixta de operaciones de creación, actualización y eliminación.
+     * Las operaciones válidas se agrupan por shard y en lotes de tamaño configurable (equipos.bulk.tamanio-lote);
+     * cada lote se aplica en su propia transacción y Hibernate envía sus INSERT, UPDATE y DELETE
+     * en batches JDBC al confirmarla. Si un lote falla solo se revierten sus operaciones.
+     *
+     * @param operaciones Las operaciones a aplicar, en orden.
+     * @return El resultado de cada operación, en el mismo orden de la solicitud.
+     * @throws CustomizableException Si la lista está vacía o supera el máximo permitido.
+     */
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.CACHE_EQUIPOS, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.CACHE_EQUIPOS_TODOS, allEntries = true)
+    })
+    public List<ResultadoBulk> aplicarBulk(List<OperacionBulk> operaciones) {
+        if (operaciones == null || operaciones.isEmpty() || operaciones.size() > MAXIMO_OPERACIONES_BULK) {
+            throw new CustomizableException("La solicitud debe tener entre 1 y " + MAXIMO_OPERACIONES_BULK + " operaciones", 400);
+        }
+
+        ResultadoBulk[] resultados = new ResultadoBulk[operaciones.size()];
+        Map<Integer, List<Integer>> validasPorShard = new TreeMap<>();
+        for (int i = 0; i < operaciones.size(); i++) {
+            OperacionBulk operacion = operaciones.get(i);
+            String error = validarOperacion(operacion);
+            if (error != null) {
+                resultados[i] = resultado(i, operacion, operacion.getId(), 400, error);
+                continue;
+            }
+            String tipo = tipoDe(operacion);
+            int shard = "crear".equals(tipo) ? shards.dePais(operacion.getEquipo().getPais()) : shards.deId(operacion.getId());
+            if (shard < 0) {
+                resultados[i] = resultado(i, operacion, operacion.getId(), 404, "Equipo no encontrado.");
+            } else if ("actualizar".equals(tipo) && shards.dePais(operacion.getEquipo().getPais()) != shard) {
+                resultados[i] = resultado(i, operacion, operacion.getId(), 409, PAIS_DE_OTRO_SHARD);
+            } else {
+                validasPorShard.computeIfAbsent(shard, clave -> new ArrayList<>()).add(i);
+            }
+        }
+
+        validasPorShard.forEach((shard, validas) -> {
+            for (int desde = 0; desde < validas.size(); desde += tamanioLote) {
+                List<Integer> lote = validas.subList(desde, Math.min(desde + tamanioLote, validas.size()));
+                try {
+                    shards.enShard(shard, () -> transactionTemplate.executeWithoutResult(estado -> aplicarLote(operaciones, lote, resultados)));
+                } catch (RuntimeException e) {
+                    // el lote completo se revirtió: ninguna de sus operaciones quedó aplicada
+                    for (Integer i : lote) {
+                        resultados[i] = resultado(i, operaciones.get(i), operaciones.get(i).getId(), 500, "No se pudo aplicar el lote");
+                    }
+                }
+            }
+        });
+        return Arrays.asList(resultados);
+    }
+
+    /**
+     * Aplica un lote de operaciones ya validadas dentro de la transacción actual.
+     * Los equipos a actualizar o eliminar se leen con una única consulta por ID.
+     */
+    private void aplicarLote(List<OperacionBulk> operaciones, List<Integer> lote, ResultadoBulk[] resultados) {
+        Set<Long> ids = new HashSet<>();
+        for (Integer i : lote) {
+            if (operaciones.get(i).getId() != null) {
+                ids.add(operaciones.get(i).getId());
+            }
+        }
+        Map<Long, Equipo> existentes = equipoRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Equipo::getId, Function.identity()));
+
+        for (Integer i : lote) {
+            OperacionBulk operacion = operaciones.get(i);
+            EquipoRequest datos = operacion.getEquipo();
+            switch (tipoDe(operacion)) {
+                case "crear": {
+                    Equipo creado = equipoRepository.save(new Equipo(datos.getNombre(), datos.getLiga(), datos.getPais()));
+                    resultados[i] = resultado(i, operacion, creado.getId(), 201, null);
+                    eventPublisher.publishEvent(EquipoCambio.creado(creado));
+                    break;
+                }
+                case "actualizar": {
+                    Equipo equipo = existentes.get(operacion.getId());
+                    if (equipo == null) {
+                        resultados[i] = resultado(i, operacion, operacion.getId(), 404, "Equipo no encontrado.");
+                        break;
+                    }
+                    equipo.setNombre(datos.getNombre());
+                    equipo.setLiga(datos.getLiga());
+                    equipo.setPais(datos.getPais());
+                    resultados[i] = resultado(i, operacion, equipo.getId(), 200, null);
+                    eventPublisher.publishEvent(EquipoCambio.actualizado(equipo));
+                    break;
+                }
+                default: {
+                    Equipo equipo = existentes.remove(operacion.getId());
+                    if (equipo == null) {
+                        resultados[i] = resultado(i, operacion, operacion.getId(), 404, "Equipo no encontrado.");
+                        break;
+                    }
+                    equipoRepository.delete(equipo);
+                    resultados[i] = resultado(i, operacion, equipo.getId(), 204, null);
+                    eventPublisher.publishEvent(EquipoCambio.eliminado(equipo.getId()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Valida una operación bulk antes de aplicarla.
+     *
+     * @return El mensaje de error, o null si la operación es válida.
+     */
+    private String validarOperacion(OperacionBulk operacion) {
+        String tipo = tipoDe(operacion);
+        if (!operacionesBulk.contains(tipo)) {
+            return "Operacion invalida";
+        }
+        if (!"crear".equals(tipo) && operacion.getId() == null) {
+            return "La solicitud es invalida";
+        }
+        if (!"eliminar".equals(tipo)) {
+            try {
+                validarRequest(operacion.getEquipo() == null ? new EquipoRequest() : operacion.getEquipo());
+            } catch (CustomizableException e) {
+                return e.getMensaje();
+            }
+        }
+        return null;
+    }
+
+    private static String tipoDe(OperacionBulk operacion) {
+        return operacion.getOperacion() == null ? "" : operacion.getOperacion().toLowerCase(Locale.ROOT);
+    }
+
+    private static ResultadoBulk resultado(int indice, OperacionBulk operacion, Long id, int codigo, String mensaje) {
+        return new ResultadoBulk(indice, tipoDe(operacion), id, codigo, mensaje);
+    }
+
+    /**
+     * Obtiene varios equipos por ID con consultas IN de hasta {@value #TAMANIO_BLOQUE_IDS} IDs, en lugar de
+     * una consulta por equipo. Los IDs repetidos se consultan una sola vez, y cada uno solo en su shard.
+     *
+     * @param ids Los IDs a buscar, en el orden en que se quieren recibir.
+     * @return Un resultado por cada ID pedido, en el mismo orden; los que no existen vienen como no encontrados.
+     * @throws CustomizableException Si la lista está vacía, supera el máximo permitido o tiene IDs nulos.
+     */
+    @Transactional(readOnly = true, label = RuteoDataSource.REPLICA)
+    public List<EquipoPorId> findAllById(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAXIMO_IDS) {
+            throw new CustomizableException("La solicitud debe tener entre 1 y " + MAXIMO_IDS + " IDs", 400);
+        }
+        Set<Long> distintos = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id == null) {
+                throw new CustomizableException("Los IDs no pueden ser nulos", 400);
+            }
+            distintos.add(id);
+        }
+
+        List<List<Long>> porShard = idsPorShard(distintos);
+        Map<Long, EquipoResponse> encontrados = new HashMap<>();
+        List<List<EquipoResponse>> leidos = shards.reunir(shard -> leerPorBloques(porShard.get(shard)));
+        for (List<EquipoResponse> equipos : leidos) {
+            for (EquipoResponse equipo : equipos) {
+                encontrados.put(equipo.id(), equipo);
+            }
+        }
+
+        List<EquipoPorId> resultados = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            resultados.add(new EquipoPorId(id, encontrados.get(id)));
+        }
+        return resultados;
     }
 
     /**
      * Busca equipos cuyo nombre contenga una cadena de String específica sin importar mayúsculas/minúsculas.
+     * Una vez construido el índice de trigramas la búsqueda se resuelve en memoria (ignorando también
+     * los acentos) y solo se leen por ID los equipos que coinciden; mientras tanto se usa la consulta LIKE.
      *
      * @param nombre La cadena a buscar en los nombres de los equipos.
      * @return Lista de equipos cuyo nombre contenga la cadena especificada.
      * @throws CustomizableException Si no se encuentran equipos.
      */
-    public List<Equipo> findAllByNombreContaining(String nombre) {
-        List<Equipo> equipos = equipoRepository.findAllByNombreContainingIgnoreCase(nombre);
+    @Transactional(readOnly = true, label = RuteoDataSource.REPLICA)
+    public List<EquipoResponse> findAllByNombreContaining(String nombre) {
+        List<EquipoResponse> equipos = nombreIndice.estaListo()
+                ? buscarEnIndice(nombre)
+                : concatenar(shards.reunir(shard -> equipoRepository.findAllByNombreContainingIgnoreCase(nombre)));
         if (equipos.isEmpty()) {
             throw new CustomizableException("Equipo no encontrado.", 404);
         }
         return equipos;
     }
 
+    /**
+     * Obtiene la cantidad de equipos por liga y por país.
+     * Una vez construidas, las facetas se leen de memoria sin consultar la base de datos;
+     * mientras tanto se calculan con un GROUP BY.
+     *
+     * @return Cantidad de equipos por liga y por país, ordenadas por nombre.
+     */
+    public FacetasEquipos findFacetas() {
+        if (facetas.estaListo()) {
+            return facetas.obtener();
+        }
+        Map<String, Long> porLiga = new TreeMap<>();
+        Map<String, Long> porPais = new TreeMap<>();
+        for (List<List<ConteoFaceta>> conteos : shards.reunir(shard -> List.of(equipoRepository.contarPorLiga(),
+                equipoRepository.contarPorPais()))) {
+            sumarConteos(porLiga, conteos.get(0));
+            sumarConteos(porPais, conteos.get(1));
+        }
+        return new FacetasEquipos(porLiga, porPais);
+    }
+
+    /* Una liga puede tener equipos en varios shards: sus conteos se suman */
+    private static void sumarConteos(Map<String, Long> ordenados, List<ConteoFaceta> conteos) {
+        for (ConteoFaceta conteo : conteos) {
+            ordenados.merge(conteo.getValor(), conteo.getCantidad(), Long::sum);
+        }
+    }
+
+    /**
+     * Resuelve una búsqueda por nombre con el índice de trigramas y lee los equipos encontrados por ID.
+     *
+     * @param nombre La cadena a buscar en los nombres de los equipos.
+     * @return Lista de equipos encontrados, ordenada por ID.
+     */
+    private List<EquipoResponse> buscarEnIndice(String nombre) {
+        List<Long> ids = nombreIndice.buscar(nombre);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (shards.cantidad() == 1) {
+            return leerPorBloques(ids);
+        }
+        List<List<Long>> porShard = idsPorShard(ids);
+        return concatenar(shards.reunir(shard -> leerPorBloques(porShard.get(shard))));
+    }
+
+    /**
+     * Lee equipos de un shard con consultas IN de hasta {@value #TAMANIO_BLOQUE_IDS} IDs. Si los IDs vienen
+     * ordenados el resultado también, porque cada bloque se lee ordenado por ID.
+     */
+    private List<EquipoResponse> leerPorBloques(List<Long> ids) {
+        List<EquipoResponse> equipos = new ArrayList<>();
+        for (int desde = 0; desde < ids.size(); desde += TAMANIO_BLOQUE_IDS) {
+            equipos.addAll(equipoRepository.findAllByIdInOrderByIdAsc(ids.subList(desde, Math.min(desde + TAMANIO_BLOQUE_IDS, ids.size()))));
+        }
+        return equipos;
+    }
+
+    /**
+     * Separa IDs según el shard que los asignó, conservando su orden; los que no corresponden a ningún shard
+     * se descartan porque no pueden existir.
+     */
+    private List<List<Long>> idsPorShard(Collection<Long> ids) {
+        List<List<Long>> porShard = new ArrayList<>(shards.cantidad());
+        for (int shard = 0; shard < shards.cantidad(); shard++) {
+            porShard.add(new ArrayList<>());
+        }
+        for (Long id : ids) {
+            int shard = shards.deId(id);
+            if (shard >= 0) {
+                porShard.get(shard).add(id);
+            }
+        }
+        return porShard;
+    }
+
+    /* Los resultados de cada shard ya vienen ordenados por ID y los rangos de IDs siguen el orden de los shards */
+    private static <T> List<T> concatenar(List<List<T>> porShard) {
+        if (porShard.size() == 1) {
+            return porShard.get(0);
+        }
+        List<T> todos = new ArrayList<>();
+        porShard.forEach(todos::addAll);
+        return todos;
+    }
+
     /**
      * Verifica si los campos de un EquipoRequest están vacíos o son nulos.
      *
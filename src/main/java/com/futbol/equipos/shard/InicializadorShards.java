@@ -0,0 +1,91 @@
+package com.futbol.equipos.shard;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.futbol.equipos.esquema.InicializadorEsquema;
+
+/**
+ * Registra un inicializador por shard, que ejecuta los scripts de spring.sql.init en ese shard omitiéndolo si ya
+ * está al día, como InicializadorEsquema. Después de ejecutar script.sql en un shard deja solo los equipos iniciales
+ * de los países que le corresponden, los pasa a su rango de IDs y lleva la secuencia a ese rango, para que los IDs
+ * que asigne Hibernate también indiquen el shard.
+ * Al ser beans de tipo SqlDataSourceScriptDatabaseInitializer, Spring Boot no crea el suyo (que ejecutaría el
+ * script en el DataSource principal, es decir en el shard 0) y JPA espera a que terminen.
+ */
+class InicializadorShards implements ImportBeanDefinitionRegistrar {
+
+    private static final Logger log = LoggerFactory.getLogger(InicializadorShards.class);
+
+    private final Environment entorno;
+
+    private final BeanFactory beanFactory;
+
+    InicializadorShards(Environment entorno, BeanFactory beanFactory) {
+        this.entorno = entorno;
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void registerBeanDefinitions(AnnotationMetadata metadata, BeanDefinitionRegistry registry) {
+        int cantidad = Binder.get(entorno).bind("equipos.shards.urls", Bindable.listOf(String.class)).get().size();
+        for (int shard = 0; shard < cantidad; shard++) {
+            int numero = shard;
+            registry.registerBeanDefinition("inicializadorShard" + shard, new RootBeanDefinition(InicializadorShard.class,
+                    () -> new InicializadorShard(beanFactory.getBean(ShardsDataSource.class).shard(numero),
+                            beanFactory.getBean(SqlInitializationProperties.class), numero, cantidad)));
+        }
+    }
+
+    static class InicializadorShard extends InicializadorEsquema {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        private final int shard;
+
+        private final int cantidad;
+
+        InicializadorShard(DataSource dataSource, SqlInitializationProperties propiedades, int shard, int cantidad) {
+            super(dataSource, propiedades);
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.shard = shard;
+            this.cantidad = cantidad;
+        }
+
+        @Override
+        protected void runScripts(Scripts scripts) {
+            super.runScripts(scripts);
+            // antes de registrar el checksum: si falla, el próximo arranque vuelve a ejecutar el script completo
+            List<Map<String, Object>> equipos = jdbcTemplate.queryForList("SELECT id, pais FROM equipos");
+            int quitados = 0;
+            for (Map<String, Object> equipo : equipos) {
+                if (Shards.shardDePais((String) equipo.get("PAIS"), cantidad) != shard) {
+                    quitados += jdbcTemplate.update("DELETE FROM equipos WHERE id = ?", equipo.get("ID"));
+                }
+            }
+            long base = shard * Shards.RANGO_IDS;
+            if (base > 0) {
+                jdbcTemplate.update("UPDATE equipos SET id = id + ?", base);
+                Long siguiente = jdbcTemplate.queryForObject(
+                        "SELECT base_value FROM information_schema.sequences WHERE sequence_name = 'EQUIPOS_SEQ'", Long.class);
+                jdbcTemplate.execute("ALTER SEQUENCE equipos_seq RESTART WITH " + (base + siguiente));
+            }
+            log.info("Shard {}: {} equipos iniciales, IDs desde {}", shard, equipos.size() - quitados, base);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.futbol.equipos.shard;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.PooledLoOptimizer;
+
+/**
+ * Optimizador pooled-lo con un bloque de IDs por shard. El de Hibernate guarda un único bloque en memoria:
+ * los IDs leídos de la secuencia de un shard terminarían asignados a equipos de otro. Cada shard tiene su propia
+ * secuencia equipos_seq dentro de su rango ({@link Shards#RANGO_IDS}), por lo que el ID indica el shard.
+ * Hibernate lo instancia por nombre desde hibernate.id.optimizer.pooled.preferred.
+ */
+public class OptimizadorPorShard implements Optimizer {
+
+    private final Class<?> tipo;
+
+    private final int incremento;
+
+    private final Map<Integer, PooledLoOptimizer> bloques = new ConcurrentHashMap<>();
+
+    public OptimizadorPorShard(Class<?> tipo, int incremento) {
+        this.tipo = tipo;
+        this.incremento = incremento;
+    }
+
+    @Override
+    public Serializable generate(AccessCallback callback) {
+        // el callback lee la secuencia con la conexión de la transacción, que es la del shard fijado
+        return bloques.computeIfAbsent(ShardsDataSource.actual(), shard -> new PooledLoOptimizer(tipo, incremento))
+                .generate(callback);
+    }
+
+    @Override
+    public IntegralDataTypeHolder getLastSourceValue() {
+        PooledLoOptimizer bloque = bloques.get(ShardsDataSource.actual());
+        return bloque == null ? null : bloque.getLastSourceValue();
+    }
+
+    @Override
+    public int getIncrementSize() {
+        return incremento;
+    }
+
+    @Override
+    public boolean applyIncrementSizeToSourceValues() {
+        return true;
+    }
+}
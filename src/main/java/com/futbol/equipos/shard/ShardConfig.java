@@ -0,0 +1,69 @@
+package com.futbol.equipos.shard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Con equipos.shards.urls configurada, reemplaza el DataSource de spring.datasource por uno por shard. Los pools
+ * toman usuario y contraseña de spring.datasource y su configuración de equipos.shards.hikari.*; el esquema de
+ * cada shard lo crea InicializadorShards. No se combina con la réplica de lectura (equipos.replica.url).
+ */
+@Configuration
+@ConditionalOnProperty(name = "equipos.shards.urls")
+@Import(InicializadorShards.class)
+public class ShardConfig {
+
+    @Bean
+    public ShardsDataSource shardsDataSource(@Value("${equipos.shards.urls}") List<String> urls,
+            @Value("${equipos.replica.url:}") String replica, DataSourceProperties propiedades, Environment entorno,
+            MeterRegistry meterRegistry) {
+        if (!replica.isBlank()) {
+            throw new IllegalStateException("equipos.shards.urls y equipos.replica.url no pueden usarse juntas");
+        }
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int shard = 0; shard < urls.size(); shard++) {
+            HikariDataSource pool = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .driverClassName(propiedades.getDriverClassName()).url(urls.get(shard).trim())
+                    .username(propiedades.getUsername()).password(propiedades.getPassword()).build();
+            Binder.get(entorno).bind("equipos.shards.hikari", Bindable.ofInstance(pool));
+            pool.setPoolName("shard-" + shard);
+            pool.setMetricRegistry(meterRegistry);
+            pools.add(pool);
+        }
+        return new ShardsDataSource(pools);
+    }
+
+    /**
+     * La conexión real se toma en la primera sentencia, con el shard ya fijado; ver ShardsDataSource.
+     */
+    @Bean
+    @Primary
+    public LazyConnectionDataSourceProxy dataSource(ShardsDataSource shards) {
+        return new LazyConnectionDataSourceProxy(shards);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer optimizadorPorShard() {
+        return propiedades -> propiedades.put("hibernate.id.optimizer.pooled.preferred", OptimizadorPorShard.class.getName());
+    }
+}
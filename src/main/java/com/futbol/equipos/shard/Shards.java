@@ -0,0 +1,245 @@
+package com.futbol.equipos.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.futbol.equipos.exception.CustomizableException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Reparte los equipos entre las bases de equipos.shards.urls según su país. Cada shard asigna los IDs de su
+ * rango [shard * 2^48, (shard + 1) * 2^48), así que el ID indica el shard sin consultar nada y los IDs son únicos
+ * entre shards; con {@value #MAXIMO_SHARDS} shards como máximo siguen siendo menores que 2^53 y un cliente
+ * JavaScript los lee sin perder precisión.
+ * Las operaciones sobre un equipo se ejecutan en su shard; las que abarcan todos los equipos consultan los shards
+ * en paralelo, cada uno en su transacción de solo lectura y con un plazo (equipos.shards.timeout).
+ * Sin equipos.shards.urls hay un único shard y todo se ejecuta directamente en el hilo y la transacción actuales.
+ */
+@Component
+public class Shards implements DisposableBean {
+
+    public static final int BITS_SHARD = 48;
+
+    public static final long RANGO_IDS = 1L << BITS_SHARD;
+
+    public static final int MAXIMO_SHARDS = 32;
+
+    public static final String CONTADOR_TIMEOUTS = "equipos.shards.timeouts";
+
+    private final int cantidad;
+
+    private final Duration timeout;
+
+    private final ExecutorService ejecutor;
+
+    private final TransactionTemplate consulta;
+
+    private final TransactionTemplate recorrido;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param urls Bases de cada shard (equipos.shards.urls); vacío equivale a un único shard.
+     * @param timeout Plazo de cada shard en las consultas a todos (equipos.shards.timeout).
+     * @param hilos Hilos para consultar los shards en paralelo (equipos.shards.hilos).
+     * @param transacciones Administrador de transacciones, para abrir una por shard.
+     * @param meterRegistry Registro del contador de shards que no respondieron a tiempo.
+     */
+    @Autowired
+    public Shards(@Value("${equipos.shards.urls:}") List<String> urls, @Value("${equipos.shards.timeout:2s}") Duration timeout,
+            @Value("${equipos.shards.hilos:16}") int hilos, ObjectProvider<PlatformTransactionManager> transacciones,
+            MeterRegistry meterRegistry) {
+        this(Math.max(1, urls.size()), timeout, hilos, urls.size() > 1 ? transacciones.getObject() : null, meterRegistry);
+    }
+
+    public Shards(int cantidad, Duration timeout, int hilos, PlatformTransactionManager transacciones, MeterRegistry meterRegistry) {
+        if (cantidad > MAXIMO_SHARDS) {
+            throw new IllegalArgumentException("equipos.shards.urls admite hasta " + MAXIMO_SHARDS + " shards");
+        }
+        this.cantidad = cantidad;
+        this.timeout = timeout;
+        this.meterRegistry = meterRegistry;
+        if (cantidad == 1) {
+            this.ejecutor = null;
+            this.consulta = null;
+            this.recorrido = null;
+            return;
+        }
+        AtomicInteger numero = new AtomicInteger();
+        this.ejecutor = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "shards-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        // transacción propia en cada shard, aunque el llamador ya tenga una abierta (que no llega a tomar conexión)
+        this.consulta = new TransactionTemplate(transacciones);
+        this.consulta.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.consulta.setReadOnly(true);
+        this.consulta.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+        this.recorrido = new TransactionTemplate(transacciones);
+        this.recorrido.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.recorrido.setReadOnly(true);
+    }
+
+    /**
+     * Un único shard: todas las operaciones se ejecutan directamente, como sin sharding.
+     */
+    public static Shards unico() {
+        return new Shards(1, Duration.ZERO, 0, null, null);
+    }
+
+    public int cantidad() {
+        return cantidad;
+    }
+
+    /**
+     * @return El shard donde viven los equipos de un país.
+     */
+    public int dePais(String pais) {
+        return cantidad == 1 || pais == null ? 0 : shardDePais(pais, cantidad);
+    }
+
+    /**
+     * Asigna un país a uno de los shards con un hash estable (CRC32 del país en minúsculas y sin espacios
+     * alrededor). Cambiar la cantidad de shards cambia la asignación: los equipos existentes no se mueven solos.
+     */
+    public static int shardDePais(String pais, int cantidad) {
+        CRC32 crc = new CRC32();
+        crc.update(pais.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % cantidad);
+    }
+
+    /**
+     * @return El shard que asignó un ID, o -1 si el ID no puede pertenecer a ningún shard configurado.
+     */
+    public int deId(Long id) {
+        if (cantidad == 1) {
+            return 0;
+        }
+        if (id == null || id < 0) {
+            return -1;
+        }
+        long shard = id >>> BITS_SHARD;
+        return shard < cantidad ? (int) shard : -1;
+    }
+
+    /**
+     * Ejecuta una operación con las conexiones del shard indicado. Las transacciones que abra (o la del llamador,
+     * si todavía no usó la base) quedan en ese shard.
+     */
+    public <T> T enShard(int shard, Supplier<T> operacion) {
+        if (cantidad == 1) {
+            return operacion.get();
+        }
+        Integer anterior = ShardsDataSource.fijar(shard);
+        try {
+            return operacion.get();
+        } finally {
+            ShardsDataSource.fijar(anterior);
+        }
+    }
+
+    public void enShard(int shard, Runnable operacion) {
+        enShard(shard, () -> {
+            operacion.run();
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta una consulta en todos los shards en paralelo (scatter-gather), cada una en su transacción de solo
+     * lectura. Si algún shard no responde dentro del plazo se abandona la consulta completa: un resultado parcial
+     * podría quedar guardado en caché como si fuera completo.
+     *
+     * @param consulta Consulta a ejecutar, recibe el número de shard.
+     * @return El resultado de cada shard, en orden de shard (que también es el orden de los IDs).
+     * @throws CustomizableException 504 si un shard no respondió a tiempo.
+     */
+    public <T> List<T> reunir(IntFunction<T> consulta) {
+        if (cantidad == 1) {
+            return Collections.singletonList(consulta.apply(0));
+        }
+        long plazo = System.nanoTime() + timeout.toNanos();
+        List<Future<T>> pendientes = new ArrayList<>(cantidad);
+        for (int shard = 0; shard < cantidad; shard++) {
+            int actual = shard;
+            pendientes.add(ejecutor.submit(() -> enShard(actual, () -> this.consulta.execute(estado -> consulta.apply(actual)))));
+        }
+        List<T> resultados = new ArrayList<>(cantidad);
+        try {
+            for (int shard = 0; shard < cantidad; shard++) {
+                resultados.add(esperar(pendientes.get(shard), shard, plazo));
+            }
+        } finally {
+            // sin interrumpir: la transacción del shard vence sola con el mismo plazo
+            pendientes.forEach(pendiente -> pendiente.cancel(false));
+        }
+        return resultados;
+    }
+
+    private <T> T esperar(Future<T> pendiente, int shard, long plazo) {
+        try {
+            return pendiente.get(Math.max(0, plazo - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            meterRegistry.counter(CONTADOR_TIMEOUTS, "shard", String.valueOf(shard)).increment();
+            throw new CustomizableException("El shard " + shard + " no respondio a tiempo", 504);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomizableException("Consulta interrumpida", 503);
+        }
+    }
+
+    /**
+     * Recorre los shards uno por uno, en orden, cada uno en su transacción de solo lectura y sin plazo.
+     * Sirve para cursores sobre todos los equipos, que así se entregan en orden de ID.
+     *
+     * @param recorrido Acción a ejecutar en cada shard, recibe el número de shard.
+     */
+    public void recorrer(IntConsumer recorrido) {
+        if (cantidad == 1) {
+            recorrido.accept(0);
+            return;
+        }
+        for (int shard = 0; shard < cantidad; shard++) {
+            int actual = shard;
+            enShard(actual, () -> this.recorrido.executeWithoutResult(estado -> recorrido.accept(actual)));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (ejecutor != null) {
+            ejecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.futbol.equipos.shard;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * DataSource que entrega conexiones del shard fijado en el hilo actual por {@link Shards}; sin shard fijado,
+ * las del shard 0. Se usa detrás de un LazyConnectionDataSourceProxy, así la conexión se toma en la primera
+ * sentencia de la transacción, cuando EquipoService ya fijó el shard, y no al abrirla.
+ * Cierra los pools de todos los shards al cerrarse.
+ */
+public class ShardsDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private final List<HikariDataSource> pools;
+
+    /**
+     * @param pools Un pool por shard, en el orden de equipos.shards.urls.
+     */
+    public ShardsDataSource(List<HikariDataSource> pools) {
+        Map<Object, Object> destinos = new HashMap<>();
+        for (int shard = 0; shard < pools.size(); shard++) {
+            destinos.put(shard, pools.get(shard));
+        }
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(pools.get(0));
+        this.pools = List.copyOf(pools);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return actual();
+    }
+
+    /**
+     * @return El shard fijado en el hilo actual, o 0 si no hay ninguno.
+     */
+    public static int actual() {
+        Integer shard = SHARD.get();
+        return shard == null ? 0 : shard;
+    }
+
+    /**
+     * Fija el shard del hilo actual.
+     *
+     * @param shard El shard, o null para quitarlo.
+     * @return El shard fijado antes, para restaurarlo.
+     */
+    static Integer fijar(Integer shard) {
+        Integer anterior = SHARD.get();
+        if (shard == null) {
+            SHARD.remove();
+        } else {
+            SHARD.set(shard);
+        }
+        return anterior;
+    }
+
+    /**
+     * @return El pool de un shard, sin pasar por el ruteo.
+     */
+    public DataSource shard(int shard) {
+        return pools.get(shard);
+    }
+
+    public int cantidad() {
+        return pools.size();
+    }
+
+    @Override
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
@@ -1,34 +1,44 @@
 DROP TABLE IF EXISTS equipos;
+DROP SEQUENCE IF EXISTS equipos_seq;
+
+-- Los IDs los asigna Hibernate en bloques de 50 (optimizador pooled-lo), lo que permite agrupar los INSERT en batches
+CREATE SEQUENCE equipos_seq START WITH 25 INCREMENT BY 50;
 
 CREATE TABLE equipos (
-    id int AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     nombre VARCHAR(255) NOT NULL,
     liga VARCHAR(255) NOT NULL,
-    pais VARCHAR(255) NOT NULL
+    pais VARCHAR(255) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL
 );
 
-INSERT INTO equipos (nombre, liga, pais) VALUES
-('Real Madrid', 'La Liga', 'España'),
-('FC Barcelona', 'La Liga', 'España'),
-('Manchester United', 'Premier League', 'Inglaterra'),
-('Liverpool FC', 'Premier League', 'Inglaterra'),
-('Juventus FC', 'Serie A', 'Italia'),
-('AC Milan', 'Serie A', 'Italia'),
-('Bayern Munich', 'Bundesliga', 'Alemania'),
-('Borussia Dortmund', 'Bundesliga', 'Alemania'),
-('Paris Saint-Germain', 'Ligue 1', 'Francia'),
-( 'Olympique de Marseille', 'Ligue 1', 'Francia'),
-('FC Porto', 'Primeira Liga', 'Portugal'),
-('Sporting CP', 'Primeira Liga', 'Portugal'),
-('Ajax Amsterdam', 'Eredivisie', 'Países Bajos'),
-('Feyenoord', 'Eredivisie', 'Países Bajos'),
-('Celtic FC', 'Scottish Premiership', 'Escocia'),
-('Rangers FC', 'Scottish Premiership', 'Escocia'),
-('Galatasaray SK', 'Süper Lig', 'Turquía'),
-('Fenerbahçe SK', 'Süper Lig', 'Turquía'),
-('FC Zenit Saint Petersburg', 'Premier League Rusa', 'Rusia'),
-('Spartak Moscow', 'Premier League Rusa', 'Rusia'),
-('SL Benfica', 'Primeira Liga', 'Portugal'),
-('Besiktas JK', 'Süper Lig', 'Turquía'),
-('SSC Napoli', 'Serie A', 'Italia'),
-('Atlético Madrid', 'La Liga', 'España');
\ No newline at end of file
+-- Índices para filtrar por liga y/o país (GET /equipos?liga=...&pais=...)
+CREATE INDEX idx_equipos_liga ON equipos (liga);
+CREATE INDEX idx_equipos_pais ON equipos (pais);
+CREATE INDEX idx_equipos_pais_liga ON equipos (pais, liga);
+
+INSERT INTO equipos (id, nombre, liga, pais) VALUES
+(1, 'Real Madrid', 'La Liga', 'España'),
+(2, 'FC Barcelona', 'La Liga', 'España'),
+(3, 'Manchester United', 'Premier League', 'Inglaterra'),
+(4, 'Liverpool FC', 'Premier League', 'Inglaterra'),
+(5, 'Juventus FC', 'Serie A', 'Italia'),
+(6, 'AC Milan', 'Serie A', 'Italia'),
+(7, 'Bayern Munich', 'Bundesliga', 'Alemania'),
+(8, 'Borussia Dortmund', 'Bundesliga', 'Alemania'),
+(9, 'Paris Saint-Germain', 'Ligue 1', 'Francia'),
+(10, 'Olympique de Marseille', 'Ligue 1', 'Francia'),
+(11, 'FC Porto', 'Primeira Liga', 'Portugal'),
+(12, 'Sporting CP', 'Primeira Liga', 'Portugal'),
+(13, 'Ajax Amsterdam', 'Eredivisie', 'Países Bajos'),
+(14, 'Feyenoord', 'Eredivisie', 'Países Bajos'),
+(15, 'Celtic FC', 'Scottish Premiership', 'Escocia'),
+(16, 'Rangers FC', 'Scottish Premiership', 'Escocia'),
+(17, 'Galatasaray SK', 'Süper Lig', 'Turquía'),
+(18, 'Fenerbahçe SK', 'Süper Lig', 'Turquía'),
+(19, 'FC Zenit Saint Petersburg', 'Premier League Rusa', 'Rusia'),
+(20, 'Spartak Moscow', 'Premier League Rusa', 'Rusia'),
+(21, 'SL Benfica', 'Primeira Liga', 'Portugal'),
+(22, 'Besiktas JK', 'Süper Lig', 'Turquía'),
+(23, 'SSC Napoli', 'Serie A', 'Italia'),
+(24, 'Atlético Madrid', 'La Liga', 'España');
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.futbol.equipos;
+
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.futbol.equipos.cache.CacheConfig;
+import com.futbol.equipos.exception.CustomizableException;
+
+class CacheConfigTest {
+
+    private final Executor ejecutor = tarea -> new Thread(tarea, "cargador").start();
+
+    private Cache cacheAsincrona() {
+        CacheProperties cacheProperties = new CacheProperties();
+        cacheProperties.getCaffeine().setSpec("maximumSize=100");
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.CACHE_EQUIPOS);
+        new CacheConfig().cacheAsincronaConHilosVirtuales(cacheProperties, ejecutor).customize(cacheManager);
+        return cacheManager.getCache(CacheConfig.CACHE_EQUIPOS);
+    }
+
+    @Test
+    public void cargarFueraDelHiloQueConsulta() {
+        Cache cache = cacheAsincrona();
+
+        String hilo = cache.get(1L, () -> Thread.currentThread().getName());
+
+        Assertions.assertEquals("cargador", hilo);
+        Assertions.assertEquals("cargador", cache.get(1L, () -> "otra carga"));
+    }
+
+    @AfterEach
+    void limpiarContexto() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+        MDC.clear();
+    }
+
+    @Test
+    public void cargarConElContextoDeLaSolicitud() {
+        Cache cache = cacheAsincrona();
+        ServletRequestAttributes solicitud = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(solicitud);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("test", null));
+        MDC.put("solicitud", "abc");
+
+        String contexto = cache.get(1L, () -> (RequestContextHolder.getRequestAttributes() == solicitud) + ","
+                + SecurityContextHolder.getContext().getAuthentication().getName() + "," + MDC.get("solicitud"));
+
+        Assertions.assertEquals("true,test,abc", contexto);
+    }
+
+    @Test
+    public void propagarErrorDeCargaSinGuardarlo() {
+        Cache cache = cacheAsincrona();
+
+        Cache.ValueRetrievalException ex = Assertions.assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get(1L, () -> { throw new CustomizableException("Equipo no encontrado.", 404); }));
+
+        Assertions.assertInstanceOf(CustomizableException.class, ex.getCause());
+        Assertions.assertNull(cache.get(1L));
+    }
+}
@@ -0,0 +1,33 @@
+package com.futbol.equipos;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CorsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    /* Un cliente del navegador puede hacer PATCH con If-Match y leer el ETag de la respuesta */
+    @Test
+    void preflightPatchConIfMatch() throws Exception {
+        mockMvc.perform(options("/equipos/1")
+                .header(HttpHeaders.ORIGIN, "http://localhost:8088")
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "PATCH")
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, "authorization,content-type,if-match"))
+        .andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, CoreMatchers.containsString("PATCH")))
+        .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, CoreMatchers.containsString("if-match")))
+        .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, "ETag"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.futbol.equipos;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.futbol.equipos.escritura.CreacionDiferida;
+import com.futbol.equipos.exception.CustomizableException;
+import com.futbol.equipos.request.EquipoRequest;
+import com.futbol.equipos.request.OperacionBulk;
+import com.futbol.equipos.response.EstadoCreacion;
+import com.futbol.equipos.response.ResultadoBulk;
+import com.futbol.equipos.service.EquipoService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CreacionDiferidaTest {
+
+    private final EquipoRequest equipo = new EquipoRequest("Dux Fc", "Primera Division", "Argentina");
+
+    private EquipoService equipoService;
+
+    @BeforeEach
+    void setUp() {
+        equipoService = mock(EquipoService.class);
+    }
+
+    /* Al detenerse se persiste todo lo encolado y cada creación queda con su ID */
+    @Test
+    public void detenerPersisteLoEncolado() {
+        List<Integer> grupos = new ArrayList<>();
+        when(equipoService.aplicarBulk(anyList())).thenAnswer(invocation -> {
+            List<OperacionBulk> operaciones = invocation.getArgument(0);
+            grupos.add(operaciones.size());
+            List<ResultadoBulk> resultados = new ArrayList<>();
+            for (int i = 0; i < operaciones.size(); i++) {
+                resultados.add(new ResultadoBulk(i, "crear", 100L + grupos.size() * 10 + i, 201, null));
+            }
+            return resultados;
+        });
+        CreacionDiferida creacion = crear(100);
+        creacion.start();
+
+        List<EstadoCreacion> encoladas = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            encoladas.add(creacion.encolar(equipo));
+        }
+        creacion.stop();
+
+        Assertions.assertEquals(5, grupos.stream().mapToInt(Integer::intValue).sum());
+        for (EstadoCreacion encolada : encoladas) {
+            EstadoCreacion estado = creacion.obtener(encolada.getSeguimiento());
+            Assertions.assertEquals(EstadoCreacion.PERSISTIDO, estado.getEstado());
+            Assertions.assertNotNull(estado.getId());
+        }
+        CustomizableException detenida = Assertions.assertThrows(CustomizableException.class, () -> creacion.encolar(equipo));
+        Assertions.assertEquals(503, detenida.getCodigo());
+    }
+
+    /* Con la cola llena se rechaza con 429 en lugar de esperar */
+    @Test
+    public void colaLlenaRechaza() throws Exception {
+        CountDownLatch escribiendo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(equipoService.aplicarBulk(anyList())).thenAnswer(invocation -> {
+            escribiendo.countDown();
+            liberar.await();
+            List<OperacionBulk> operaciones = invocation.getArgument(0);
+            List<ResultadoBulk> resultados = new ArrayList<>();
+            for (int i = 0; i < operaciones.size(); i++) {
+                resultados.add(new ResultadoBulk(i, "crear", null, 500, "No se pudo aplicar el lote"));
+            }
+            return resultados;
+        });
+        CreacionDiferida creacion = crear(1);
+        creacion.start();
+
+        EstadoCreacion primera = creacion.encolar(equipo);
+        Assertions.assertTrue(escribiendo.await(5, TimeUnit.SECONDS));
+        EstadoCreacion segunda = creacion.encolar(equipo);
+        CustomizableException llena = Assertions.assertThrows(CustomizableException.class, () -> creacion.encolar(equipo));
+
+        Assertions.assertEquals(429, llena.getCodigo());
+        Assertions.assertEquals(EstadoCreacion.PENDIENTE, creacion.obtener(segunda.getSeguimiento()).getEstado());
+
+        liberar.countDown();
+        creacion.stop();
+        Assertions.assertEquals(EstadoCreacion.ERROR, creacion.obtener(primera.getSeguimiento()).getEstado());
+        Assertions.assertEquals(EstadoCreacion.ERROR, creacion.obtener(segunda.getSeguimiento()).getEstado());
+        Assertions.assertThrows(CustomizableException.class, () -> creacion.obtener("desconocido"));
+    }
+
+    @Test
+    public void estadosMaximosNoMenorQueLaCapacidad() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CreacionDiferida(equipoService,
+                new SimpleMeterRegistry(), 100, 2, Duration.ofMinutes(1), 99, Duration.ofSeconds(10)));
+    }
+
+    private CreacionDiferida crear(int capacidad) {
+        return new CreacionDiferida(equipoService, new SimpleMeterRegistry(), capacidad, 2,
+                Duration.ofMinutes(1), 1000, Duration.ofSeconds(10));
+    }
+}
@@ -1,8 +1,20 @@
 package com.futbol.equipos;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.futbol.equipos.entity.Equipo;
+import com.futbol.equipos.escritura.CreacionDiferida;
+import com.futbol.equipos.evento.EquipoCambio;
+import com.futbol.equipos.evento.FlujoCambios;
+import com.futbol.equipos.exception.CustomizableException;
 import com.futbol.equipos.request.EquipoRequest;
+import com.futbol.equipos.request.OperacionBulk;
+import com.futbol.equipos.response.EquipoPorId;
+import com.futbol.equipos.response.EquipoResponse;
+import com.futbol.equipos.response.EstadoCreacion;
+import com.futbol.equipos.response.FacetasEquipos;
+import com.futbol.equipos.response.PaginaEquipos;
+import com.futbol.equipos.response.ResultadoBulk;
 import com.futbol.equipos.service.EquipoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,21 +25,31 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import static org.mockito.BDDMockito.*;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 
 import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.Assertions;
 
 @SpringBootTest
 @AutoConfigureMockMvc(addFilters = false)
@@ -39,9 +61,15 @@ class EquipoControllerTest {
     @MockitoBean
     private EquipoService equipoService;
 
+    @MockitoBean
+    private CreacionDiferida creacionDiferida;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private FlujoCambios flujoCambios;
+
     Equipo equipo1 = new Equipo();
     Equipo equipo2 = new Equipo();
 
@@ -72,6 +100,181 @@ class EquipoControllerTest {
         .andExpect(MockMvcResultMatchers.jsonPath("$.pais", CoreMatchers.is(equipo1.getPais())));
     }
 
+    @DisplayName("Test para GET condicional por ID del Controller")
+    @Test
+    void testGetEquipoByIdNoModificado() throws Exception {
+        equipo1.setId(1L);
+        equipo1.setVersion(3L);
+        when(equipoService.findById(1L)).thenReturn(equipo1);
+
+        mockMvc.perform(get("/equipos/1"))
+        .andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.header().stringValues(HttpHeaders.ETAG, "\"1-3\""));
+
+        mockMvc.perform(get("/equipos/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+        .andExpect(MockMvcResultMatchers.status().isNotModified())
+        .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @DisplayName("Test para ETag y Vary según el formato pedido del Controller")
+    @Test
+    void testGetEquipoByIdEtagPorFormato() throws Exception {
+        equipo1.setId(1L);
+        equipo1.setVersion(3L);
+        when(equipoService.findById(1L)).thenReturn(equipo1);
+
+        mockMvc.perform(get("/equipos/1").accept("application/cbor"))
+        .andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.header().stringValues(HttpHeaders.ETAG, "\"1-3-cbor\""))
+        .andExpect(MockMvcResultMatchers.header().stringValues(HttpHeaders.VARY, CoreMatchers.hasItem(HttpHeaders.ACCEPT)));
+
+        // el ETag del JSON no valida la representación CBOR, ni al revés
+        mockMvc.perform(get("/equipos/1").accept("application/cbor").header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+        .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(get("/equipos/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-3-cbor\""))
+        .andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.header().stringValues(HttpHeaders.ETAG, "\"1-3\""));
+        mockMvc.perform(get("/equipos/1").accept("application/cbor").header(HttpHeaders.IF_NONE_MATCH, "\"1-3-cbor\""))
+        .andExpect(MockMvcResultMatchers.status().isNotModified())
+        .andExpect(MockMvcResultMatchers.header().stringValues(HttpHeaders.VARY, CoreMatchers.hasItem(HttpHeaders.ACCEPT)));
+
+        // If-Match acepta el ETag de la misma versión en otro formato
+        when(equipoService.updateEquipo(ArgumentMatchers.eq(1L), ArgumentMatchers.any(EquipoRequest.class), ArgumentMatchers.eq(3L)))
+                .thenReturn(equipo1);
+        mockMvc.perform(put("/equipos/1")
+                .header(HttpHeaders.IF_MATCH, "\"1-3-cbor\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(equipo1)))
+        .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @DisplayName("Test para GET condicional de la lista del Controller")
+    @Test
+    void testGetAllEquiposNoModificado() throws Exception {
+        String etag = mockMvc.perform(get("/equipos"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertTrue(etag.startsWith("W/"), etag);
+
+        mockMvc.perform(get("/equipos").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(MockMvcResultMatchers.status().isNotModified());
+        mockMvc.perform(get("/equipos").accept("application/x-jackson-smile").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(MockMvcResultMatchers.status().isOk());
+
+        verify(equipoService, times(2)).findPagina(null, null, "id", null, null);
+    }
+
+    @DisplayName("Test para PUT con If-Match desactualizado del Controller")
+    @Test
+    void testUpdateEquipoVersionDesactualizada() throws Exception {
+        when(equipoService.updateEquipo(ArgumentMatchers.eq(1L), ArgumentMatchers.any(EquipoRequest.class), ArgumentMatchers.eq(2L)))
+                .thenThrow(new CustomizableException("El equipo fue modificado por otra solicitud", 412));
+
+        mockMvc.perform(put("/equipos/1")
+                .header(HttpHeaders.IF_MATCH, "\"1-2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(equipo2)))
+        .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+        // un ETag de otro equipo nunca coincide
+        mockMvc.perform(put("/equipos/1")
+                .header(HttpHeaders.IF_MATCH, "\"7-2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(equipo2)))
+        .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
+    @DisplayName("Test para método GET paginado del Controller")
+    @Test
+    void testGetAllEquiposPaginado() throws Exception {
+        when(equipoService.findPagina("abc", 2, "nombre", null, null)).thenReturn(new PaginaEquipos(List.of(resumen(equipo1), resumen(equipo2)), "def", 2));
+
+        ResultActions response = mockMvc.perform(get("/equipos")
+                .param("after", "abc")
+                .param("limit", "2")
+                .param("sort", "nombre"));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.jsonPath("$.equipos[0].nombre", CoreMatchers.is(equipo1.getNombre())))
+        .andExpect(MockMvcResultMatchers.jsonPath("$.equipos[1].nombre", CoreMatchers.is(equipo2.getNombre())))
+        .andExpect(MockMvcResultMatchers.jsonPath("$.siguienteCursor", CoreMatchers.is("def")));
+    }
+
+    @DisplayName("Test para método GET filtrado por liga y país del Controller")
+    @Test
+    void testGetAllEquiposFiltrados() throws Exception {
+        when(equipoService.findPagina(null, null, "id", "La Liga", "España")).thenReturn(new PaginaEquipos(List.of(resumen(equipo1)), null, 20));
+        when(equipoService.findAllFiltrados(null, "Argentina")).thenReturn(List.of(resumen(equipo2)));
+
+        mockMvc.perform(get("/equipos").param("liga", "La Liga").param("pais", "España"))
+        .andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.jsonPath("$.equipos[0].nombre", CoreMatchers.is(equipo1.getNombre())));
+
+        mockMvc.perform(get("/equipos").param("pais", "Argentina").param("all", "true"))
+        .andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.jsonPath("$[0].nombre", CoreMatchers.is(equipo2.getNombre())));
+        verify(equipoService, never()).findAll();
+    }
+
+    @DisplayName("Test para método GET sin paginar del Controller")
+    @Test
+    void testGetAllEquiposSinPaginar() throws Exception {
+        when(equipoService.findAll()).thenReturn(List.of(resumen(equipo1), resumen(equipo2)));
+
+        ResultActions response = mockMvc.perform(get("/equipos").param("all", "true"));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.jsonPath("$[1].nombre", CoreMatchers.is(equipo2.getNombre())));
+    }
+
+    @DisplayName("Test para método GET sin paginar en Smile del Controller")
+    @Test
+    void testGetAllEquiposSmile() throws Exception {
+        when(equipoService.findAll()).thenReturn(List.of(resumen(equipo1), resumen(equipo2)));
+
+        byte[] cuerpo = mockMvc.perform(get("/equipos").param("all", "true").accept("application/x-jackson-smile"))
+        .andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith("application/x-jackson-smile"))
+        .andReturn().getResponse().getContentAsByteArray();
+
+        EquipoResponse[] equipos = new ObjectMapper(new SmileFactory()).readValue(cuerpo, EquipoResponse[].class);
+        Assertions.assertEquals(equipo2.getNombre(), equipos[1].nombre());
+    }
+
+    @DisplayName("Test para método GET de facetas del Controller")
+    @Test
+    void testGetFacetas() throws Exception {
+        when(equipoService.findFacetas()).thenReturn(new FacetasEquipos(
+                Map.of("La Liga", 1L, "Primera Division", 1L), Map.of("Argentina", 1L, "España", 1L)));
+
+        ResultActions response = mockMvc.perform(get("/equipos/facets"));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.jsonPath("$.liga['La Liga']", CoreMatchers.is(1)))
+        .andExpect(MockMvcResultMatchers.jsonPath("$.pais.Argentina", CoreMatchers.is(1)));
+    }
+
+    @DisplayName("Test para la exportación NDJSON del Controller")
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportarEquipos() throws Exception {
+        willAnswer(invocation -> {
+            Consumer<Equipo> consumidor = invocation.getArgument(0);
+            consumidor.accept(equipo1);
+            consumidor.accept(equipo2);
+            return null;
+        }).given(equipoService).recorrerTodos(ArgumentMatchers.any(Consumer.class));
+
+        ResultActions response = mockMvc.perform(asyncDispatch(mockMvc.perform(get("/equipos/export"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn()));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+        .andExpect(MockMvcResultMatchers.content().string(
+                objectMapper.writeValueAsString(equipo1) + "\n" + objectMapper.writeValueAsString(equipo2) + "\n"));
+    }
+
     @DisplayName("Test para método POST del Controller")
     @Test
     void testCreateEquipo() throws Exception {
@@ -87,6 +290,105 @@ class EquipoControllerTest {
         .andExpect(MockMvcResultMatchers.jsonPath("$.pais", CoreMatchers.is(equipo1.getPais())));
     }
 
+    @DisplayName("Test para método POST asíncrono del Controller")
+    @Test
+    void testCreateEquipoAsync() throws Exception {
+        given(creacionDiferida.encolar(ArgumentMatchers.any(EquipoRequest.class))).willReturn(EstadoCreacion.pendiente("abc"));
+        given(creacionDiferida.obtener("abc")).willReturn(EstadoCreacion.persistido("abc", 25L));
+
+        mockMvc.perform(post("/equipos").param("async", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(equipo1)))
+        .andExpect(MockMvcResultMatchers.status().isAccepted())
+        .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LOCATION, "/equipos/async/abc"))
+        .andExpect(MockMvcResultMatchers.jsonPath("$.estado", CoreMatchers.is("pendiente")));
+
+        mockMvc.perform(get("/equipos/async/abc"))
+        .andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.is(25)));
+        verify(equipoService, never()).save(ArgumentMatchers.any(Equipo.class));
+    }
+
+    @DisplayName("Test para el flujo de cambios del Controller")
+    @Test
+    void testStreamEquipos() throws Exception {
+        MvcResult suscripcion = mockMvc.perform(get("/equipos/stream"))
+        .andExpect(MockMvcResultMatchers.request().asyncStarted())
+        .andReturn();
+
+        flujoCambios.alCambiar(EquipoCambio.creado(new Equipo(7L, "Dux Fc", "Primera Division", "Argentina")));
+        flujoCambios.alCambiar(EquipoCambio.eliminado(8L));
+        String eventos = esperarEvento(suscripcion, "event:eliminado");
+        Assertions.assertTrue(eventos.contains("event:creado\ndata:{\"id\":7,\"nombre\":\"Dux Fc\""));
+
+        // al reconectarse con el ID del primer evento solo se reenvía el segundo
+        String primerId = eventos.substring(eventos.indexOf("id:") + 3, eventos.indexOf('\n', eventos.indexOf("id:")));
+        MvcResult reconexion = mockMvc.perform(get("/equipos/stream").header("Last-Event-ID", primerId))
+        .andExpect(MockMvcResultMatchers.request().asyncStarted())
+        .andReturn();
+        String reenviados = esperarEvento(reconexion, "event:eliminado");
+        Assertions.assertFalse(reenviados.contains("event:creado"));
+
+        // un ID desconocido pide recargar los equipos
+        MvcResult desconocido = mockMvc.perform(get("/equipos/stream").header("Last-Event-ID", "otro-3"))
+        .andExpect(MockMvcResultMatchers.request().asyncStarted())
+        .andReturn();
+        esperarEvento(desconocido, "event:" + FlujoCambios.EVENTO_REINICIO);
+    }
+
+    @DisplayName("Test para método POST bulk del Controller")
+    @Test
+    void testBulkEquipos() throws Exception {
+        when(equipoService.aplicarBulk(ArgumentMatchers.anyList())).thenReturn(List.of(
+                new ResultadoBulk(0, "crear", 25L, 201, null),
+                new ResultadoBulk(1, "eliminar", 99L, 404, "Equipo no encontrado.")));
+
+        ResultActions response = mockMvc.perform(post("/equipos/_bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(
+                        new OperacionBulk("crear", null, new EquipoRequest("Dux Fc", "Primera Division", "Argentina")),
+                        new OperacionBulk("eliminar", 99L, null)))));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.jsonPath("$[0].codigo", CoreMatchers.is(201)))
+        .andExpect(MockMvcResultMatchers.jsonPath("$[0].id", CoreMatchers.is(25)))
+        .andExpect(MockMvcResultMatchers.jsonPath("$[1].codigo", CoreMatchers.is(404)));
+    }
+
+    @DisplayName("Test para GET de varios equipos por ID del Controller")
+    @Test
+    void testGetEquiposPorIds() throws Exception {
+        EquipoResponse real = new EquipoResponse(1L, "Real Madrid", "La Liga", "España");
+        when(equipoService.findAllById(List.of(1L, 99L, 1L))).thenReturn(List.of(
+                new EquipoPorId(1L, real), new EquipoPorId(99L, null), new EquipoPorId(1L, real)));
+
+        mockMvc.perform(get("/equipos").param("ids", "1, 99,1"))
+        .andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+        .andExpect(MockMvcResultMatchers.jsonPath("$[0].encontrado", CoreMatchers.is(true)))
+        .andExpect(MockMvcResultMatchers.jsonPath("$[0].equipo.nombre", CoreMatchers.is("Real Madrid")))
+        .andExpect(MockMvcResultMatchers.jsonPath("$[1].id", CoreMatchers.is(99)))
+        .andExpect(MockMvcResultMatchers.jsonPath("$[1].encontrado", CoreMatchers.is(false)))
+        .andExpect(MockMvcResultMatchers.jsonPath("$[2].id", CoreMatchers.is(1)));
+
+        mockMvc.perform(get("/equipos").param("ids", "1,abc"))
+        .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @DisplayName("Test para POST de varios equipos por ID del Controller")
+    @Test
+    void testPostEquiposPorIds() throws Exception {
+        when(equipoService.findAllById(List.of(2L, 1L))).thenReturn(List.of(
+                new EquipoPorId(2L, null), new EquipoPorId(1L, new EquipoResponse(1L, "Real Madrid", "La Liga", "España"))));
+
+        mockMvc.perform(post("/equipos/_mget")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[2, 1]"))
+        .andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.jsonPath("$[0].encontrado", CoreMatchers.is(false)))
+        .andExpect(MockMvcResultMatchers.jsonPath("$[1].equipo.id", CoreMatchers.is(1)));
+    }
+
     @DisplayName("Test para método PUT del Controller")
     @Test
     void testUpdateEquipo() throws Exception {
@@ -102,6 +404,36 @@ class EquipoControllerTest {
         .andExpect(MockMvcResultMatchers.jsonPath("$.pais", CoreMatchers.is(equipo2.getPais())));
     }
 
+    @DisplayName("Test para método PATCH del Controller")
+    @Test
+    void testPatchEquipo() throws Exception {
+        mockMvc.perform(patch("/equipos/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombre\": \"Dux Fc\"}"))
+        .andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        // con If-Match se conoce la nueva versión sin volver a leer el equipo
+        mockMvc.perform(patch("/equipos/1")
+                .header(HttpHeaders.IF_MATCH, "\"1-2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"liga\": \"Primera Division\"}"))
+        .andExpect(MockMvcResultMatchers.status().isNoContent())
+        .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1-3\""));
+
+        // el ETag de la nueva versión corresponde al formato pedido, como en el GET
+        mockMvc.perform(patch("/equipos/1")
+                .accept("application/cbor")
+                .header(HttpHeaders.IF_MATCH, "\"1-3-cbor\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"pais\": \"Argentina\"}"))
+        .andExpect(MockMvcResultMatchers.status().isNoContent())
+        .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1-4-cbor\""));
+
+        verify(equipoService).actualizarParcial(ArgumentMatchers.eq(1L),
+                ArgumentMatchers.argThat(c -> "Dux Fc".equals(c.getNombre()) && c.getLiga() == null), ArgumentMatchers.isNull());
+        verify(equipoService).actualizarParcial(ArgumentMatchers.eq(1L), ArgumentMatchers.any(EquipoRequest.class), ArgumentMatchers.eq(2L));
+    }
+
     @DisplayName("Test para método DELETE del Controller")
     @Test
     void testDeleteEquipo() throws Exception {
@@ -112,4 +444,21 @@ class EquipoControllerTest {
 
         response.andExpect(MockMvcResultMatchers.status().isNoContent());
     }
+
+    /* Proyección de solo lectura con los mismos datos que el equipo */
+    private static EquipoResponse resumen(Equipo equipo) {
+        return new EquipoResponse(equipo.getId(), equipo.getNombre(), equipo.getLiga(), equipo.getPais());
+    }
+
+    /* Espera a que el flujo SSE escriba el evento indicado y devuelve lo escrito hasta ese momento */
+    private static String esperarEvento(MvcResult resultado, String evento) throws Exception {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String contenido = resultado.getResponse().getContentAsString();
+        while (!contenido.contains(evento) && System.nanoTime() < limite) {
+            Thread.sleep(10);
+            contenido = resultado.getResponse().getContentAsString();
+        }
+        Assertions.assertTrue(contenido.contains(evento), contenido);
+        return contenido;
+    }
 }
@@ -0,0 +1,123 @@
+package com.futbol.equipos;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.futbol.equipos.entity.Equipo;
+import com.futbol.equipos.indice.EquipoFacetas;
+import com.futbol.equipos.repository.ConteoFaceta;
+import com.futbol.equipos.repository.EquipoRepository;
+import com.futbol.equipos.response.FacetasEquipos;
+import com.futbol.equipos.shard.Shards;
+
+import jakarta.persistence.EntityManager;
+
+class EquipoFacetasTest {
+
+    private EquipoRepository equipoRepository;
+
+    private EntityManager entityManager;
+
+    private EquipoFacetas facetas;
+
+    @BeforeEach
+    void setUp() {
+        equipoRepository = mock(EquipoRepository.class);
+        entityManager = mock(EntityManager.class);
+        facetas = new EquipoFacetas(equipoRepository, entityManager, Shards.unico());
+        facetas.registrar(1L, "La Liga", "España");
+        facetas.registrar(2L, "La Liga", "España");
+        facetas.registrar(3L, "Serie A", "Italia");
+    }
+
+    @Test
+    public void contarPorLigaYPais() {
+        FacetasEquipos resultado = facetas.obtener();
+
+        Assertions.assertEquals(Map.of("La Liga", 2L, "Serie A", 1L), resultado.getLiga());
+        Assertions.assertEquals(Map.of("España", 2L, "Italia", 1L), resultado.getPais());
+        Assertions.assertEquals(List.of("La Liga", "Serie A"), List.copyOf(resultado.getLiga().keySet()));
+    }
+
+    @Test
+    public void actualizarMueveElEquipoDeLiga() {
+        facetas.registrar(3L, "La Liga", "España");
+        facetas.registrar(3L, "La Liga", "España");
+
+        Assertions.assertEquals(Map.of("La Liga", 3L), facetas.obtener().getLiga());
+        Assertions.assertEquals(Map.of("España", 3L), facetas.obtener().getPais());
+    }
+
+    @Test
+    public void actualizacionParcialConservaLoNoEnviado() {
+        facetas.registrarParcial(3L, "La Liga", null);
+        facetas.registrarParcial(1L, null, null);
+
+        Assertions.assertEquals(Map.of("La Liga", 3L), facetas.obtener().getLiga());
+        Assertions.assertEquals(Map.of("España", 2L, "Italia", 1L), facetas.obtener().getPais());
+    }
+
+    @Test
+    public void eliminarDescuenta() {
+        facetas.eliminar(1L);
+        facetas.eliminar(1L);
+        facetas.eliminar(99L);
+
+        Assertions.assertEquals(Map.of("La Liga", 1L, "Serie A", 1L), facetas.obtener().getLiga());
+    }
+
+    @Test
+    public void reconciliarReconstruyeSiDifiere() {
+        when(equipoRepository.contarPorLiga()).thenReturn(List.of(conteo("La Liga", 2), conteo("Serie A", 2)));
+        when(equipoRepository.contarPorPais()).thenReturn(List.of(conteo("España", 2), conteo("Italia", 2)));
+        when(equipoRepository.streamAllByOrderByIdAsc()).thenAnswer(i -> Stream.of(
+                equipo(1L, "La Liga", "España"), equipo(2L, "La Liga", "España"),
+                equipo(3L, "Serie A", "Italia"), equipo(4L, "Serie A", "Italia")));
+        facetas.construir();
+        // las facetas se desvían de la base, por ejemplo por un borrado que luego se revirtió
+        facetas.eliminar(4L);
+
+        facetas.reconciliar();
+
+        Assertions.assertEquals(Map.of("La Liga", 2L, "Serie A", 2L), facetas.obtener().getLiga());
+        verify(equipoRepository, times(2)).streamAllByOrderByIdAsc();
+    }
+
+    @Test
+    public void reconciliarNoReconstruyeSiCoincide() {
+        when(equipoRepository.contarPorLiga()).thenReturn(List.of(conteo("La Liga", 2), conteo("Serie A", 1)));
+        when(equipoRepository.contarPorPais()).thenReturn(List.of(conteo("España", 2), conteo("Italia", 1)));
+        when(equipoRepository.streamAllByOrderByIdAsc()).thenAnswer(i -> Stream.of(
+                equipo(1L, "La Liga", "España"), equipo(2L, "La Liga", "España"), equipo(3L, "Serie A", "Italia")));
+        facetas.construir();
+
+        facetas.reconciliar();
+
+        verify(equipoRepository, times(1)).streamAllByOrderByIdAsc();
+        verify(equipoRepository, never()).findAll();
+        verify(entityManager, times(3)).detach(any(Equipo.class));
+    }
+
+    private static Equipo equipo(Long id, String liga, String pais) {
+        return new Equipo(id, "Equipo " + id, liga, pais);
+    }
+
+    private static ConteoFaceta conteo(String valor, long cantidad) {
+        return new ConteoFaceta() {
+            public String getValor() { return valor; }
+            public long getCantidad() { return cantidad; }
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package com.futbol.equipos;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.futbol.equipos.response.EquipoResponse;
+import com.futbol.equipos.response.PaginaEquipos;
+import com.futbol.equipos.service.EquipoService;
+
+/* Filtros por liga y país contra la base H2 cargada con script.sql */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.futbol.equipos.EquipoFiltrosTest$SqlGenerado")
+class EquipoFiltrosTest {
+
+    @Autowired
+    private EquipoService equipoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void filtrarPorLigaConPaginacion() {
+        PaginaEquipos primera = equipoService.findPagina(null, 2, "nombre", "La Liga", null);
+        PaginaEquipos segunda = equipoService.findPagina(primera.getSiguienteCursor(), 2, "nombre", "La Liga", null);
+
+        Assertions.assertEquals(List.of("Atlético Madrid", "FC Barcelona"), nombres(primera.getEquipos()));
+        Assertions.assertEquals(List.of("Real Madrid"), nombres(segunda.getEquipos()));
+        Assertions.assertNull(segunda.getSiguienteCursor());
+    }
+
+    @Test
+    public void filtrarPorPaisYLiga() {
+        Assertions.assertEquals(List.of("Juventus FC", "AC Milan", "SSC Napoli"),
+                nombres(equipoService.findAllFiltrados("Serie A", "Italia")));
+        Assertions.assertEquals(List.of(), equipoService.findAllFiltrados("La Liga", "Italia"));
+        Assertions.assertEquals(3, equipoService.findPagina(null, 10, "id", null, "Portugal").getEquipos().size());
+    }
+
+    /* Las proyecciones de los listados se serializan igual que la entidad */
+    @Test
+    public void proyeccionSerializaComoEntidad() throws Exception {
+        Assertions.assertEquals(objectMapper.writeValueAsString(equipoService.findById(1L)),
+                objectMapper.writeValueAsString(equipoService.findAll().get(0)));
+        Assertions.assertEquals(objectMapper.writeValueAsString(equipoService.findById(2L)),
+                objectMapper.writeValueAsString(equipoService.findPagina(null, 2, "id").getEquipos().get(1)));
+    }
+
+    /* Se revisa el plan del SQL que genera Hibernate, no de una copia escrita a mano que podría diferir */
+    @Test
+    public void filtrosUsanIndices() {
+        String cursor = equipoService.findPagina(null, 2, "nombre", "La Liga", null).getSiguienteCursor();
+
+        Assertions.assertTrue(planDe(() -> equipoService.findPagina(null, 20, "id", "La Liga", null)).contains("IDX_EQUIPOS_LIGA"));
+        Assertions.assertTrue(planDe(() -> equipoService.findPagina(cursor, 2, "nombre", "La Liga", null)).contains("IDX_EQUIPOS_LIGA"));
+        Assertions.assertTrue(planDe(() -> equipoService.findPagina(null, 20, "id", null, "España")).contains("IDX_EQUIPOS_PAIS"));
+        Assertions.assertTrue(planDe(() -> equipoService.findAllFiltrados("La Liga", "España")).contains("IDX_EQUIPOS_PAIS_LIGA"));
+    }
+
+    /**
+     * Ejecuta una consulta del servicio y obtiene el plan de H2 para la sentencia que generó Hibernate.
+     * H2 elige el índice al preparar la sentencia, así que los parámetros se pasan como null.
+     */
+    private String planDe(Runnable consulta) {
+        SqlGenerado.SENTENCIAS.clear();
+        consulta.run();
+        Assertions.assertEquals(1, SqlGenerado.SENTENCIAS.size(), SqlGenerado.SENTENCIAS::toString);
+        String sql = SqlGenerado.SENTENCIAS.get(0);
+        Object[] parametros = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parametros);
+        Assertions.assertFalse(plan.contains("tableScan"), plan);
+        return plan;
+    }
+
+    private static List<String> nombres(List<EquipoResponse> equipos) {
+        return equipos.stream().map(EquipoResponse::nombre).toList();
+    }
+
+    /* Guarda las sentencias que Hibernate envía a la base, sin modificarlas */
+    public static class SqlGenerado implements StatementInspector {
+
+        static final List<String> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.futbol.equipos;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.futbol.equipos.indice.EquipoNombreIndice;
+import com.futbol.equipos.shard.Shards;
+
+class EquipoNombreIndiceTest {
+
+    private EquipoNombreIndice indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new EquipoNombreIndice(null, null, Shards.unico());
+        indice.indexar(1L, "Real Madrid");
+        indice.indexar(2L, "Atlético Madrid");
+        indice.indexar(3L, "Fenerbahçe SK");
+    }
+
+    @Test
+    public void buscarIgnoraMayusculasYAcentos() {
+        Assertions.assertEquals(List.of(2L), indice.buscar("atletico"));
+        Assertions.assertEquals(List.of(1L, 2L), indice.buscar("MADRID"));
+        Assertions.assertEquals(List.of(3L), indice.buscar("fenerbahce"));
+    }
+
+    @Test
+    public void buscarVerificaCandidatos() {
+        // los trigramas de "abcd" (abc, bcd) están los dos en "Abc Bcd", pero el texto completo no
+        indice.indexar(4L, "Abc Bcd");
+        Assertions.assertEquals(List.of(4L), indice.buscar("c bc"));
+        Assertions.assertEquals(List.of(), indice.buscar("abcd"));
+        Assertions.assertEquals(List.of(), indice.buscar("boca"));
+    }
+
+    @Test
+    public void buscarTextoCorto() {
+        Assertions.assertEquals(List.of(1L, 2L), indice.buscar("ma"));
+    }
+
+    @Test
+    public void indexarReemplazaYEliminarQuita() {
+        indice.indexar(1L, "Dux Fc");
+        indice.eliminar(2L);
+
+        Assertions.assertEquals(List.of(), indice.buscar("madrid"));
+        Assertions.assertEquals(List.of(1L), indice.buscar("dux"));
+    }
+}
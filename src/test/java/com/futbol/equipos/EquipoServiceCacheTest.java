@@ -0,0 +1,157 @@
+package com.futbol.equipos;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.futbol.equipos.entity.Equipo;
+import com.futbol.equipos.evento.ContadorCambios;
+import com.futbol.equipos.evento.EquipoCambio;
+import com.futbol.equipos.repository.EquipoRepository;
+import com.futbol.equipos.request.EquipoRequest;
+import com.futbol.equipos.response.EquipoResponse;
+import com.futbol.equipos.service.EquipoService;
+
+@SpringBootTest
+class EquipoServiceCacheTest {
+
+    @Autowired
+    private EquipoService equipoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ContadorCambios contadorCambios;
+
+    @Autowired
+    private LecturaDuranteCambio lecturaDuranteCambio;
+
+    @MockitoBean
+    private EquipoRepository equipoRepository;
+
+    private Equipo equipo;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+        equipo = new Equipo(1L, "Real Madrid", "La Liga", "España");
+        lecturaDuranteCambio.activa = false;
+        lecturaDuranteCambio.lecturas.clear();
+    }
+
+    @DisplayName("findById consulta el repositorio una sola vez")
+    @Test
+    void findByIdUsaCache() {
+        when(equipoRepository.findById(1L)).thenReturn(Optional.of(equipo));
+
+        equipoService.findById(1L);
+        Equipo segundo = equipoService.findById(1L);
+
+        Assertions.assertEquals("Real Madrid", segundo.getNombre());
+        verify(equipoRepository, times(1)).findById(1L);
+    }
+
+    @DisplayName("Actualizar un equipo refresca la caché por ID e invalida la lista completa")
+    @Test
+    void updateEquipoRefrescaCache() {
+        when(equipoRepository.findById(1L)).thenReturn(Optional.of(equipo));
+        when(equipoRepository.findAllByOrderByIdAsc()).thenReturn(List.of(new EquipoResponse(1L, "Real Madrid", "La Liga", "España")));
+        when(equipoRepository.save(any(Equipo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        equipoService.findById(1L);
+        equipoService.findAll();
+        equipoService.updateEquipo(1L, new EquipoRequest("Dux Fc", "Primera Division", "Argentina"));
+
+        Assertions.assertEquals("Dux Fc", equipoService.findById(1L).getNombre());
+        equipoService.findAll();
+        verify(equipoRepository, times(2)).findAllByOrderByIdAsc();
+    }
+
+    @DisplayName("Eliminar un equipo lo quita de la caché")
+    @Test
+    void deleteByIdInvalidaCache() {
+        when(equipoRepository.findById(1L)).thenReturn(Optional.of(equipo));
+        when(equipoRepository.existsById(1L)).thenReturn(true);
+
+        equipoService.findById(1L);
+        equipoService.deleteById(1L);
+        equipoService.findById(1L);
+
+        verify(equipoRepository, times(2)).findById(1L);
+    }
+
+    @DisplayName("Una lectura durante el cambio nunca recibe el ETag nuevo con la lista vieja")
+    @Test
+    void etagNuevoNoSeEmparejaConListaVieja() {
+        EquipoResponse viejo = new EquipoResponse(1L, "Real Madrid", "La Liga", "España");
+        EquipoResponse nuevo = new EquipoResponse(1L, "Dux Fc", "Primera Division", "Argentina");
+        when(equipoRepository.findById(1L)).thenReturn(Optional.of(equipo));
+        when(equipoRepository.findAllByOrderByIdAsc()).thenReturn(List.of(viejo), List.of(nuevo));
+        when(equipoRepository.save(any(Equipo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        lecturaDuranteCambio.activa = true;
+        String etagAnterior = contadorCambios.etag();
+        Assertions.assertEquals(List.of(viejo), equipoService.findAll());
+        equipoService.updateEquipo(1L, new EquipoRequest("Dux Fc", "Primera Division", "Argentina"));
+
+        // La lectura se hizo dentro del cambio, antes del @CacheEvict del servicio
+        Assertions.assertEquals(1, lecturaDuranteCambio.lecturas.size());
+        Lectura lectura = lecturaDuranteCambio.lecturas.get(0);
+        Assertions.assertNotEquals(etagAnterior, lectura.etag());
+        Assertions.assertEquals(List.of(nuevo), lectura.equipos());
+    }
+
+    record Lectura(String etag, List<EquipoResponse> equipos) {
+    }
+
+    /* Lee la lista como lo haría un GET concurrente, mientras el servicio todavía no terminó de escribir */
+    static class LecturaDuranteCambio {
+
+        private volatile boolean activa;
+
+        private final List<Lectura> lecturas = new CopyOnWriteArrayList<>();
+
+        private final ContadorCambios contadorCambios;
+
+        private final EquipoService equipoService;
+
+        LecturaDuranteCambio(ContadorCambios contadorCambios, EquipoService equipoService) {
+            this.contadorCambios = contadorCambios;
+            this.equipoService = equipoService;
+        }
+
+        @TransactionalEventListener(fallbackExecution = true)
+        public void alCambiar(EquipoCambio cambio) {
+            if (!activa) {
+                return;
+            }
+            String etag = contadorCambios.etag();
+            lecturas.add(new Lectura(etag, equipoService.findAll()));
+        }
+    }
+
+    @TestConfiguration
+    static class LecturaConfig {
+
+        @Bean
+        LecturaDuranteCambio lecturaDuranteCambio(ContadorCambios contadorCambios, EquipoService equipoService) {
+            return new LecturaDuranteCambio(contadorCambios, equipoService);
+        }
+    }
+}
@@ -2,15 +2,28 @@ package com.futbol.equipos;
 
 import static org.mockito.ArgumentMatchers.any;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import com.futbol.equipos.entity.Equipo;
+import com.futbol.equipos.evento.EquipoCambio;
 import com.futbol.equipos.exception.CustomizableException;
+import com.futbol.equipos.indice.EquipoFacetas;
+import com.futbol.equipos.indice.EquipoNombreIndice;
+import com.futbol.equipos.repository.ConteoFaceta;
 import com.futbol.equipos.repository.EquipoRepository;
 import com.futbol.equipos.request.EquipoRequest;
+import com.futbol.equipos.request.OperacionBulk;
+import com.futbol.equipos.response.EquipoPorId;
+import com.futbol.equipos.response.EquipoResponse;
+import com.futbol.equipos.response.FacetasEquipos;
+import com.futbol.equipos.response.PaginaEquipos;
+import com.futbol.equipos.response.ResultadoBulk;
 import com.futbol.equipos.security.AuthController;
 import com.futbol.equipos.service.EquipoService;
+import com.futbol.equipos.shard.Shards;
 
 import org.junit.jupiter.api.Assertions;
 
@@ -18,11 +31,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
 
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.mockito.Mockito.*;
 
@@ -42,11 +63,28 @@ class EquiposApplicationTests {
 	@Mock
     private EquipoRepository equipoRepository; // Mock del repositorio
 
+	@Mock
+	private EquipoNombreIndice nombreIndice; // Mock del índice de nombres (sin construir)
+
+	@Mock
+	private EquipoFacetas facetas; // Mock de las facetas en memoria (sin construir)
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Spy
+	private Shards shards = Shards.unico(); // Un único shard: las operaciones se ejecutan directamente
+
     @InjectMocks
     private EquipoService equipoService; // Servicio con dependencia mockeada
 
     private List<Equipo> mockEquipos;
 
+    private List<EquipoResponse> mockResumenes;
+
 	private Equipo equipo;
 
     @BeforeEach
@@ -57,15 +95,55 @@ class EquiposApplicationTests {
         );
 
 		equipo = mockEquipos.get(0);
+		mockResumenes = List.of(
+			new EquipoResponse(1L, "Real Madrid", "La Liga", "España"),
+			new EquipoResponse(2L, "FC Barcelona", "La Liga", "España")
+		);
     }
 
     @Test
     public void findAllTest() {
-        when(equipoRepository.findAll()).thenReturn(mockEquipos); // Configura el mock
+        when(equipoRepository.findAllByOrderByIdAsc()).thenReturn(mockResumenes); // Configura el mock
 
-        List<Equipo> equipos = equipoService.findAll(); // Llama al servicio
+        List<EquipoResponse> equipos = equipoService.findAll(); // Llama al servicio
 
-        Assertions.assertEquals(mockEquipos, equipos); // Verifica el resultado
+        Assertions.assertEquals(mockResumenes, equipos); // Verifica el resultado
+    }
+
+    @Test
+    public void findPaginaTest() {
+        when(equipoRepository.findAllBy(any(ScrollPosition.class), eq(Sort.by("nombre", "id")), eq(Limit.of(2))))
+                .thenReturn(Window.from(mockResumenes, ScrollPosition::offset, true));
+
+        PaginaEquipos primera = equipoService.findPagina(null, 2, "nombre");
+
+        Assertions.assertEquals(mockResumenes, primera.getEquipos());
+        Assertions.assertNotNull(primera.getSiguienteCursor());
+
+        // El cursor devuelto continúa después del último equipo de la página
+        when(equipoRepository.findAllBy(eq(ScrollPosition.forward(Map.of("nombre", "FC Barcelona", "id", 2L))),
+                eq(Sort.by("nombre", "id")), eq(Limit.of(2))))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset, false));
+
+        PaginaEquipos segunda = equipoService.findPagina(primera.getSiguienteCursor(), 2, "nombre");
+
+        Assertions.assertTrue(segunda.getEquipos().isEmpty());
+        Assertions.assertNull(segunda.getSiguienteCursor());
+    }
+
+	/* Verifica que tire CustomizableException con orden, límite o cursor inválidos */
+    @Test
+    public void findPaginaTestErr() {
+        CustomizableException orden = Assertions.assertThrows(CustomizableException.class,
+                () -> equipoService.findPagina(null, 10, "estadio"));
+        CustomizableException limite = Assertions.assertThrows(CustomizableException.class,
+                () -> equipoService.findPagina(null, 0, "id"));
+        CustomizableException cursor = Assertions.assertThrows(CustomizableException.class,
+                () -> equipoService.findPagina("no-es-un-cursor", 10, "id"));
+
+        Assertions.assertEquals(400, orden.getCodigo());
+        Assertions.assertEquals(400, limite.getCodigo());
+        Assertions.assertEquals(400, cursor.getCodigo());
     }
 
     @Test
@@ -93,14 +171,96 @@ class EquiposApplicationTests {
 
 	@Test
     public void findAllByNombreContainingTest() {
-        when(equipoRepository.findAllByNombreContainingIgnoreCase("Real")).thenReturn(List.of(equipo)); // Configura el mock
+        when(equipoRepository.findAllByNombreContainingIgnoreCase("Real")).thenReturn(List.of(mockResumenes.get(0))); // Configura el mock
+
+		List<EquipoResponse> equipos = equipoService.findAllByNombreContaining("Real"); // Llama al servicio
+
+		Assertions.assertEquals(mockResumenes.get(0), equipos.get(0)); // Verifica el resultado
+
+    }
+
+	@Test
+    public void findAllByNombreContainingIndiceTest() {
+		when(nombreIndice.estaListo()).thenReturn(true);
+		when(nombreIndice.buscar("atletico")).thenReturn(List.of(2L, 1L));
+		when(equipoRepository.findAllByIdInOrderByIdAsc(List.of(2L, 1L))).thenReturn(mockResumenes);
+
+		List<EquipoResponse> equipos = equipoService.findAllByNombreContaining("atletico");
+
+		Assertions.assertEquals(mockResumenes, equipos); // Ordenados por ID en la consulta
+		verify(equipoRepository, never()).findAllByNombreContainingIgnoreCase(any());
+    }
+
+	@Test
+    public void findAllByNombreContainingIndicePorBloquesTest() {
+		List<Long> ids = new ArrayList<>();
+		for (long id = 1; id <= EquipoService.TAMANIO_BLOQUE_IDS + 1; id++) {
+			ids.add(id);
+		}
+		when(nombreIndice.estaListo()).thenReturn(true);
+		when(nombreIndice.buscar("club")).thenReturn(ids);
+		when(equipoRepository.findAllByIdInOrderByIdAsc(any())).thenReturn(mockResumenes);
+
+		Assertions.assertEquals(mockResumenes.size() * 2, equipoService.findAllByNombreContaining("club").size());
+		verify(equipoRepository, times(2)).findAllByIdInOrderByIdAsc(any());
+    }
+
+	@Test
+    public void findAllByIdTest() {
+		when(equipoRepository.findAllByIdInOrderByIdAsc(List.of(2L, 99L, 1L))).thenReturn(mockResumenes);
+
+		List<EquipoPorId> resultados = equipoService.findAllById(List.of(2L, 99L, 1L, 2L));
+
+		// en el orden pedido, con los IDs repetidos consultados una sola vez
+		Assertions.assertEquals(List.of(2L, 99L, 1L, 2L), resultados.stream().map(EquipoPorId::getId).toList());
+		Assertions.assertEquals(List.of(true, false, true, true), resultados.stream().map(EquipoPorId::isEncontrado).toList());
+		Assertions.assertEquals(mockResumenes.get(0), resultados.get(2).getEquipo());
+		verify(equipoRepository, times(1)).findAllByIdInOrderByIdAsc(any());
+    }
+
+	@Test
+    public void findAllByIdPorBloquesTest() {
+		List<Long> ids = new ArrayList<>();
+		for (long id = 1; id <= EquipoService.TAMANIO_BLOQUE_IDS * 2 + 1; id++) {
+			ids.add(id);
+		}
+		when(equipoRepository.findAllByIdInOrderByIdAsc(any())).thenReturn(List.of());
+
+		Assertions.assertEquals(ids.size(), equipoService.findAllById(ids).size());
+		verify(equipoRepository, times(3)).findAllByIdInOrderByIdAsc(any());
+		Assertions.assertThrows(CustomizableException.class, () -> equipoService.findAllById(List.of()));
+    }
 
-		List<Equipo> equipos = equipoService.findAllByNombreContaining("Real"); // Llama al servicio
+	@Test
+    public void findFacetasTest() {
+		FacetasEquipos enMemoria = new FacetasEquipos(Map.of("La Liga", 2L), Map.of("España", 2L));
+		when(facetas.estaListo()).thenReturn(true);
+		when(facetas.obtener()).thenReturn(enMemoria);
+
+		Assertions.assertSame(enMemoria, equipoService.findFacetas());
+		verify(equipoRepository, never()).contarPorLiga();
+    }
 
-		Assertions.assertEquals(equipo, equipos.get(0)); // Verifica el resultado
+	/* Mientras las facetas no están construidas se calculan con GROUP BY */
+	@Test
+    public void findFacetasSinConstruirTest() {
+		when(equipoRepository.contarPorLiga()).thenReturn(List.of(conteo("Serie A", 1), conteo("La Liga", 2)));
+		when(equipoRepository.contarPorPais()).thenReturn(List.of(conteo("España", 2), conteo("Italia", 1)));
+
+		FacetasEquipos resultado = equipoService.findFacetas();
 
+		Assertions.assertEquals(List.of("La Liga", "Serie A"), List.copyOf(resultado.getLiga().keySet()));
+		Assertions.assertEquals(2L, resultado.getLiga().get("La Liga"));
+		Assertions.assertEquals(1L, resultado.getPais().get("Italia"));
     }
 
+	private static ConteoFaceta conteo(String valor, long cantidad) {
+		return new ConteoFaceta() {
+			public String getValor() { return valor; }
+			public long getCantidad() { return cantidad; }
+		};
+	}
+
 	@Test
     public void findAllByNombreContainingTestErr() throws CustomizableException {
 		when(equipoRepository.findAllByNombreContainingIgnoreCase("Boca")).thenReturn(Collections.emptyList());
@@ -156,6 +316,55 @@ class EquiposApplicationTests {
 		Assertions.assertEquals(400, exception.getCodigo());
 	}
 
+	@Test
+	public void updateEquipoVersionDesactualizadaTest() {
+		Equipo equipoExistente = new Equipo(1L, "Real Madrid", "La Liga", "España");
+		equipoExistente.setVersion(4L);
+		when(equipoRepository.findById(1L)).thenReturn(Optional.of(equipoExistente));
+
+		CustomizableException exception = Assertions.assertThrows(CustomizableException.class, () -> {
+			equipoService.updateEquipo(1L, new EquipoRequest("Dux Fc", "Primera Division", "Argentina"), 3L);
+		});
+
+		Assertions.assertEquals(412, exception.getCodigo());
+		verify(equipoRepository, never()).save(any(Equipo.class));
+	}
+
+	@Test
+	public void actualizarParcialTest() {
+		when(equipoRepository.actualizarCampos(1L, "Dux Fc", null, null, null)).thenReturn(1);
+
+		equipoService.actualizarParcial(1L, new EquipoRequest("Dux Fc", null, null), null);
+
+		// un único UPDATE, sin leer el equipo antes
+		verify(equipoRepository, never()).findById(any());
+		verify(eventPublisher).publishEvent(any(EquipoCambio.class));
+	}
+
+	/* Verifica los códigos de error de PATCH: campos vacíos, equipo inexistente y versión desactualizada */
+	@Test
+	public void actualizarParcialTestErr() {
+		CustomizableException vacio = Assertions.assertThrows(CustomizableException.class,
+				() -> equipoService.actualizarParcial(1L, new EquipoRequest(), null));
+		CustomizableException enBlanco = Assertions.assertThrows(CustomizableException.class,
+				() -> equipoService.actualizarParcial(1L, new EquipoRequest(null, " ", null), null));
+
+		when(equipoRepository.actualizarCampos(eq(100L), any(), any(), any(), any())).thenReturn(0);
+		CustomizableException inexistente = Assertions.assertThrows(CustomizableException.class,
+				() -> equipoService.actualizarParcial(100L, new EquipoRequest(null, "Serie A", null), null));
+
+		when(equipoRepository.actualizarCampos(1L, null, "Serie A", null, 3L)).thenReturn(0);
+		when(equipoRepository.existsById(1L)).thenReturn(true);
+		CustomizableException version = Assertions.assertThrows(CustomizableException.class,
+				() -> equipoService.actualizarParcial(1L, new EquipoRequest(null, "Serie A", null), 3L));
+
+		Assertions.assertEquals(400, vacio.getCodigo());
+		Assertions.assertEquals(400, enBlanco.getCodigo());
+		Assertions.assertEquals(404, inexistente.getCodigo());
+		Assertions.assertEquals(412, version.getCodigo());
+		verify(eventPublisher, never()).publishEvent(any());
+	}
+
 	@Test
 	public void saveTest() {
 		// Configurar el mock del repositorio para devolver el mismo objeto
@@ -168,9 +377,51 @@ class EquiposApplicationTests {
 		Assertions.assertEquals(equipo, resultado);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void aplicarBulkTest() {
+		// Ejecutar cada lote directamente, sin transacción real
+		doAnswer(invocation -> {
+			invocation.<Consumer<Object>>getArgument(0).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+		when(equipoRepository.findAllById(any())).thenReturn(List.of(new Equipo(1L, "Real Madrid", "La Liga", "España")));
+		when(equipoRepository.save(any(Equipo.class))).thenAnswer(invocation -> {
+			Equipo nuevo = invocation.getArgument(0);
+			nuevo.setId(25L);
+			return nuevo;
+		});
+
+		List<ResultadoBulk> resultados = equipoService.aplicarBulk(List.of(
+			new OperacionBulk("crear", null, new EquipoRequest("Dux Fc", "Primera Division", "Argentina")),
+			new OperacionBulk("actualizar", 1L, new EquipoRequest("Real Madrid CF", "La Liga", "España")),
+			new OperacionBulk("eliminar", 99L, null),
+			new OperacionBulk("crear", null, new EquipoRequest("", "", "")),
+			new OperacionBulk("renombrar", 1L, null)
+		));
+
+		Assertions.assertEquals(201, resultados.get(0).getCodigo());
+		Assertions.assertEquals(25L, resultados.get(0).getId());
+		Assertions.assertEquals(200, resultados.get(1).getCodigo());
+		Assertions.assertEquals(404, resultados.get(2).getCodigo());
+		Assertions.assertEquals(400, resultados.get(3).getCodigo());
+		Assertions.assertEquals(400, resultados.get(4).getCodigo());
+		verify(equipoRepository, times(1)).save(any(Equipo.class));
+	}
+
+	@Test
+	public void aplicarBulkTestErr() {
+		CustomizableException exception = Assertions.assertThrows(CustomizableException.class, () -> {
+			equipoService.aplicarBulk(List.of());
+		});
+
+		Assertions.assertEquals(400, exception.getCodigo());
+	}
+
 	@Test
 	public void deleteByIdTest() {
 		Long id = 1L;
+		when(equipoRepository.existsById(id)).thenReturn(true);
 
 		// Ejecutar el método del servicio
 		equipoService.deleteById(id);
@@ -179,4 +430,15 @@ class EquiposApplicationTests {
 		verify(equipoRepository, times(1)).deleteById(id);
 	}
 
+	@Test
+	public void deleteByIdInexistenteTest() {
+		when(equipoRepository.existsById(99L)).thenReturn(false);
+
+		CustomizableException exception = Assertions.assertThrows(CustomizableException.class, () -> equipoService.deleteById(99L));
+
+		Assertions.assertEquals(404, exception.getCodigo());
+		verify(equipoRepository, never()).deleteById(99L);
+		verify(eventPublisher, never()).publishEvent(any(EquipoCambio.class));
+	}
+
 }
@@ -0,0 +1,124 @@
+package com.futbol.equipos;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.futbol.equipos.exception.CustomizableException;
+import com.futbol.equipos.importacion.ImportadorCsv;
+import com.futbol.equipos.request.EquipoRequest;
+import com.futbol.equipos.request.OperacionBulk;
+import com.futbol.equipos.response.ResultadoBulk;
+import com.futbol.equipos.response.ResumenImportacion;
+import com.futbol.equipos.service.EquipoService;
+
+class ImportadorCsvTest {
+
+    private EquipoService equipoService;
+
+    /* Equipos recibidos por aplicarBulk, en orden */
+    private List<EquipoRequest> creados;
+
+    @BeforeEach
+    void setUp() {
+        equipoService = mock(EquipoService.class);
+        doCallRealMethod().when(equipoService).validarRequest(any());
+        doCallRealMethod().when(equipoService).tieneCamposVacios(any());
+        creados = new ArrayList<>();
+        when(equipoService.aplicarBulk(anyList())).thenAnswer(invocation -> {
+            List<OperacionBulk> operaciones = invocation.getArgument(0);
+            List<ResultadoBulk> resultados = new ArrayList<>();
+            for (int i = 0; i < operaciones.size(); i++) {
+                creados.add(operaciones.get(i).getEquipo());
+                resultados.add(new ResultadoBulk(i, "crear", (long) creados.size(), 201, null));
+            }
+            return resultados;
+        });
+    }
+
+    @Test
+    public void importarEnBloquesConLineas() throws Exception {
+        String csv = "\uFEFFPais,Nombre,Liga\r\n"
+                + "España,Real Madrid,La Liga\r\n"
+                + "\r\n"
+                + "Argentina,\"Club \"\"Dux\"\", Fc\",Primera Division\r\n"
+                + "Italia,\"Juventus\nFC\",Serie A\n"
+                + "Italia,,Serie A\n"
+                + "Francia,PSG\n"
+                + "España,FC Barcelona,La Liga";
+
+        ResumenImportacion resumen = importar(2, 10, csv);
+
+        Assertions.assertEquals(4, resumen.getAceptadas());
+        Assertions.assertEquals(2, resumen.getRechazadas());
+        Assertions.assertEquals(List.of(7, 8), resumen.getRechazos().stream().map(r -> r.getLinea()).toList());
+        Assertions.assertEquals("La solicitud es invalida", resumen.getRechazos().get(0).getMensaje());
+        Assertions.assertEquals("Cantidad de columnas invalida", resumen.getRechazos().get(1).getMensaje());
+
+        Assertions.assertEquals("Club \"Dux\", Fc", creados.get(1).getNombre());
+        Assertions.assertEquals("Juventus\nFC", creados.get(2).getNombre());
+        Assertions.assertEquals("Argentina", creados.get(1).getPais());
+        verify(equipoService, times(2)).aplicarBulk(anyList());
+    }
+
+    /* Las filas de un lote que falló se informan como rechazadas, sin afectar a las demás */
+    @Test
+    public void loteFallidoSeRechaza() throws Exception {
+        when(equipoService.aplicarBulk(anyList())).thenReturn(
+                List.of(new ResultadoBulk(0, "crear", 30L, 201, null)),
+                List.of(new ResultadoBulk(0, "crear", null, 500, "No se pudo aplicar el lote")));
+
+        ResumenImportacion resumen = importar(1, 10, "nombre,liga,pais\nA,B,C\nD,E,F\n");
+
+        Assertions.assertEquals(1, resumen.getAceptadas());
+        Assertions.assertEquals(3, resumen.getRechazos().get(0).getLinea());
+        Assertions.assertEquals("No se pudo aplicar el lote", resumen.getRechazos().get(0).getMensaje());
+    }
+
+    @Test
+    public void rechazosSeResumenYEncabezadoSeValida() throws Exception {
+        ResumenImportacion resumen = importar(10, 2, "nombre,liga,pais\n,,\n,,\n,,\n\"sin cerrar,,\n");
+
+        Assertions.assertEquals(4, resumen.getRechazadas());
+        Assertions.assertEquals(2, resumen.getRechazos().size());
+        Assertions.assertEquals(2, resumen.getRechazosOmitidos());
+
+        CustomizableException sinColumnas = Assertions.assertThrows(CustomizableException.class,
+                () -> importar(10, 10, "nombre,liga\nA,B\n"));
+        CustomizableException vacio = Assertions.assertThrows(CustomizableException.class, () -> importar(10, 10, ""));
+        Assertions.assertEquals(400, sinColumnas.getCodigo());
+        Assertions.assertEquals(400, vacio.getCodigo());
+    }
+
+    /* Una fila de solo separadores también tiene límite, y la siguiente se lee normalmente */
+    @Test
+    public void filaDeComasDemasiadoLargaSeRechaza() throws Exception {
+        String csv = "nombre,liga,pais\n" + ",".repeat(1_000_000) + "\nA,B,C\n";
+
+        ResumenImportacion resumen = importar(10, 10, csv);
+
+        Assertions.assertEquals(1, resumen.getAceptadas());
+        Assertions.assertEquals(1, resumen.getRechazadas());
+        Assertions.assertEquals(2, resumen.getRechazos().get(0).getLinea());
+        Assertions.assertEquals("Fila demasiado larga", resumen.getRechazos().get(0).getMensaje());
+        Assertions.assertEquals("A", creados.get(0).getNombre());
+    }
+
+    private ResumenImportacion importar(int tamanioBloque, int maximoRechazos, String csv) throws Exception {
+        ImportadorCsv importador = new ImportadorCsv(equipoService, tamanioBloque, maximoRechazos);
+        return importador.importar(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
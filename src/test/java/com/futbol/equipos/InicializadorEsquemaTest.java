@@ -0,0 +1,51 @@
+package com.futbol.equipos;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.futbol.equipos.esquema.InicializadorEsquema;
+
+class InicializadorEsquemaTest {
+
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    private InicializadorEsquema inicializador() {
+        SqlInitializationProperties propiedades = new SqlInitializationProperties();
+        propiedades.setMode(DatabaseInitializationMode.ALWAYS);
+        propiedades.setDataLocations(List.of("classpath:script.sql"));
+        return new InicializadorEsquema(dataSource, propiedades);
+    }
+
+    @Test
+    public void omitirScriptSinCambiosYConservarDatos() {
+        Assertions.assertTrue(inicializador().initializeDatabase());
+        jdbcTemplate.update("DELETE FROM equipos WHERE id = 1");
+        int equipos = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM equipos", Integer.class);
+
+        Assertions.assertFalse(inicializador().initializeDatabase());
+
+        Assertions.assertEquals(equipos, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM equipos", Integer.class));
+    }
+
+    @Test
+    public void ejecutarScriptSiCambioElChecksum() {
+        inicializador().initializeDatabase();
+        jdbcTemplate.update("UPDATE esquema_version SET checksum = 'anterior'");
+        jdbcTemplate.update("DELETE FROM equipos");
+
+        Assertions.assertTrue(inicializador().initializeDatabase());
+
+        Assertions.assertTrue(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM equipos", Integer.class) > 0);
+        Assertions.assertNotEquals("anterior", jdbcTemplate.queryForObject("SELECT checksum FROM esquema_version", String.class));
+    }
+}
@@ -0,0 +1,83 @@
+package com.futbol.equipos;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.futbol.equipos.security.AuthEntryPoint;
+import com.futbol.equipos.security.CubetaTokens;
+import com.futbol.equipos.security.LimiteSolicitudes;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LimiteSolicitudesTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final LimiteSolicitudes limite = new LimiteSolicitudes(List.of("/auth/login=2/1m", "/equipos/**=3/1s"),
+            100, Duration.ofMinutes(10), new AuthEntryPoint(), meterRegistry);
+
+    @AfterEach
+    void limpiarContexto() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletResponse solicitar(String ruta, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", ruta);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        limite.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    public void cubetaAdmiteRafagaYSeRecarga() {
+        long segundo = Duration.ofSeconds(1).toNanos();
+        CubetaTokens cubeta = new CubetaTokens(2, Duration.ofSeconds(2), 0);
+
+        Assertions.assertEquals(0, cubeta.consumir(0));
+        Assertions.assertEquals(0, cubeta.consumir(0));
+        Assertions.assertEquals(segundo, cubeta.consumir(0));
+        Assertions.assertEquals(0, cubeta.consumir(segundo));
+        Assertions.assertEquals(segundo, cubeta.consumir(segundo));
+        // inactiva mucho tiempo: vuelve a estar llena, sin acumular más que la capacidad
+        Assertions.assertEquals(0, cubeta.consumir(100 * segundo));
+        Assertions.assertEquals(0, cubeta.consumir(100 * segundo));
+        Assertions.assertTrue(cubeta.consumir(100 * segundo) > 0);
+    }
+
+    @Test
+    public void rechazarConRetryAfterPorIpSinToken() throws Exception {
+        Assertions.assertEquals(200, solicitar("/auth/login", "10.0.0.1").getStatus());
+        Assertions.assertEquals(200, solicitar("/auth/login", "10.0.0.1").getStatus());
+
+        MockHttpServletResponse rechazada = solicitar("/auth/login", "10.0.0.1");
+
+        Assertions.assertEquals(429, rechazada.getStatus());
+        Assertions.assertEquals("30", rechazada.getHeader(HttpHeaders.RETRY_AFTER));
+        Assertions.assertTrue(rechazada.getContentAsString().contains("\"codigo\":429"));
+        Assertions.assertEquals(200, solicitar("/auth/login", "10.0.0.2").getStatus());
+        Assertions.assertEquals(1, meterRegistry.counter(LimiteSolicitudes.CONTADOR_RECHAZOS, "ruta", "/auth/login").count());
+    }
+
+    @Test
+    public void limitarPorUsuarioAutenticadoYRuta() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("test", null, List.of()));
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(200, solicitar("/equipos/buscar", "10.0.0." + i).getStatus());
+        }
+
+        Assertions.assertEquals(429, solicitar("/equipos/1", "10.0.0.9").getStatus());
+        Assertions.assertEquals(200, solicitar("/auth/login", "10.0.0.9").getStatus());
+        Assertions.assertEquals(200, solicitar("/swagger-ui/index.html", "10.0.0.9").getStatus());
+    }
+}
@@ -0,0 +1,83 @@
+package com.futbol.equipos;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.futbol.equipos.entity.Equipo;
+import com.futbol.equipos.exception.CustomizableException;
+import com.futbol.equipos.indice.EquipoFacetas;
+import com.futbol.equipos.indice.EquipoNombreIndice;
+import com.futbol.equipos.metricas.MetricasServicio;
+import com.futbol.equipos.repository.EquipoRepository;
+import com.futbol.equipos.security.AuthFilter;
+import com.futbol.equipos.security.JwtUtil;
+import com.futbol.equipos.security.TokenCache;
+import com.futbol.equipos.service.EquipoService;
+import com.futbol.equipos.shard.Shards;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MetricasTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void medirMetodosDelServicioPorResultado() {
+        EquipoRepository equipoRepository = mock(EquipoRepository.class);
+        when(equipoRepository.findById(1L)).thenReturn(Optional.of(new Equipo()));
+        when(equipoRepository.findById(2L)).thenReturn(Optional.empty());
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new EquipoService(equipoRepository,
+                mock(EquipoNombreIndice.class), mock(EquipoFacetas.class), mock(ApplicationEventPublisher.class), mock(TransactionTemplate.class),
+                Shards.unico()));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new MetricasServicio(registry));
+        EquipoService equipoService = proxyFactory.getProxy();
+
+        equipoService.findById(1L);
+        Assertions.assertThrows(CustomizableException.class, () -> equipoService.findById(2L));
+
+        Assertions.assertEquals(1, registry.get(MetricasServicio.TIMER_SERVICIO)
+                .tags("metodo", "findById", "resultado", "exito", "codigo", "ninguno").timer().count());
+        Assertions.assertEquals(1, registry.get(MetricasServicio.TIMER_SERVICIO)
+                .tags("metodo", "findById", "resultado", "error", "codigo", "404", "excepcion", "CustomizableException")
+                .timer().count());
+    }
+
+    @Test
+    public void medirVerificacionDeTokens() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil("12345678912345678912345678912345", Duration.ofHours(10));
+        AuthFilter filtro = new AuthFilter();
+        ReflectionTestUtils.setField(filtro, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filtro, "userDetailsService", new InMemoryUserDetailsManager(
+                User.withUsername("test").password("{noop}12345").roles("USER").build()));
+        ReflectionTestUtils.setField(filtro, "tokenCache", new TokenCache(100, Duration.ofMinutes(5)));
+        ReflectionTestUtils.setField(filtro, "meterRegistry", registry);
+        String token = jwtUtil.generateToken("test");
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/equipos/1");
+            request.addHeader("Authorization", "Bearer " + token);
+            filtro.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+        }
+        SecurityContextHolder.clearContext();
+
+        Assertions.assertEquals(1, registry.get(AuthFilter.TIMER_VERIFICACION).tag("resultado", "verificado").timer().count());
+        Assertions.assertEquals(2, registry.get(AuthFilter.TIMER_VERIFICACION).tag("resultado", "cache").timer().count());
+    }
+}
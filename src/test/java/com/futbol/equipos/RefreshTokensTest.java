@@ -0,0 +1,53 @@
+package com.futbol.equipos;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.futbol.equipos.security.RefreshTokens;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RefreshTokensTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RefreshTokens refreshTokens = new RefreshTokens(100, Duration.ofDays(1), meterRegistry);
+
+    @Test
+    public void renovarRotaElRefreshToken() {
+        String refreshToken = refreshTokens.emitir("test");
+
+        RefreshTokens.Renovacion renovacion = refreshTokens.renovar(refreshToken);
+
+        Assertions.assertEquals("test", renovacion.usuario());
+        Assertions.assertNotEquals(refreshToken, renovacion.refreshToken());
+        Assertions.assertEquals("test", refreshTokens.renovar(renovacion.refreshToken()).usuario());
+    }
+
+    @Test
+    public void reutilizarRefreshTokenRevocaLaFamilia() {
+        String refreshToken = refreshTokens.emitir("test");
+        String otroLogin = refreshTokens.emitir("test");
+        String rotado = refreshTokens.renovar(refreshToken).refreshToken();
+
+        Assertions.assertNull(refreshTokens.renovar(refreshToken));
+        Assertions.assertNull(refreshTokens.renovar(rotado));
+        Assertions.assertNotNull(refreshTokens.renovar(otroLogin));
+        Assertions.assertEquals(1, meterRegistry.counter(RefreshTokens.CONTADOR_RENOVACIONES, "resultado", "reutilizado").count());
+    }
+
+    @Test
+    public void rechazarRefreshTokenDesconocido() {
+        String refreshToken = refreshTokens.emitir("test");
+        String familia = refreshToken.substring(0, refreshToken.indexOf('.'));
+
+        Assertions.assertNull(refreshTokens.renovar("desconocido.secreto"));
+        Assertions.assertNull(refreshTokens.renovar("sin-punto"));
+        Assertions.assertNull(refreshTokens.renovar(null));
+        // un secreto adivinado equivale a reutilizar uno viejo: revoca la familia
+        Assertions.assertNull(refreshTokens.renovar(familia + ".adivinado"));
+        Assertions.assertNull(refreshTokens.renovar(refreshToken));
+    }
+}
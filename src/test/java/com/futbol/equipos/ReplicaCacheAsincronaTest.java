@@ -0,0 +1,68 @@
+package com.futbol.equipos;
+
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.futbol.equipos.cache.CacheConfig;
+import com.futbol.equipos.entity.Equipo;
+import com.futbol.equipos.service.EquipoService;
+
+/**
+ * Caché asíncrona (la del modo de hilos virtuales) junto con la réplica de lectura. Las pruebas corren en Java 17,
+ * así que el modo asíncrono se aplica con el mismo personalizador sobre un ejecutor de hilos de plataforma.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cache-asincrona-primaria;DB_CLOSE_DELAY=-1",
+        "equipos.replica.url=jdbc:h2:mem:cache-asincrona-replica;DB_CLOSE_DELAY=-1",
+        "equipos.replica.local.demora=1h",
+        "equipos.replica.demora-tolerada=0s" })
+class ReplicaCacheAsincronaTest {
+
+    @TestConfiguration
+    static class CacheAsincrona {
+
+        @Bean
+        CacheManagerCustomizer<CaffeineCacheManager> cacheAsincrona(CacheProperties cacheProperties) {
+            return new CacheConfig().cacheAsincronaConHilosVirtuales(cacheProperties, Executors.newCachedThreadPool());
+        }
+    }
+
+    @Autowired
+    private EquipoService equipoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void terminarSolicitud() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void cargaEnCacheLeeDeLaPrimariaTrasEscribirEnLaSolicitud() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Equipo creado = equipoService.save(new Equipo("Club Asincrono", "Liga Local", "Uruguay"));
+        try {
+            cacheManager.getCache(CacheConfig.CACHE_EQUIPOS).clear();
+
+            // la réplica todavía no tiene el equipo: solo se encuentra si la carga sabe que la solicitud escribió
+            Assertions.assertEquals("Club Asincrono", equipoService.findById(creado.getId()).getNombre());
+        } finally {
+            equipoService.deleteById(creado.getId());
+        }
+    }
+}
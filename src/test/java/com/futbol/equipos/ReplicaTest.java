@@ -0,0 +1,110 @@
+package com.futbol.equipos;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.futbol.equipos.cache.CacheConfig;
+import com.futbol.equipos.entity.Equipo;
+import com.futbol.equipos.exception.CustomizableException;
+import com.futbol.equipos.replica.RuteoDataSource;
+import com.futbol.equipos.service.EquipoService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ruteo-primaria;DB_CLOSE_DELAY=-1",
+        "equipos.replica.url=jdbc:h2:mem:ruteo-replica;DB_CLOSE_DELAY=-1",
+        // la réplica no se pone al día durante la prueba: lo que se lee de ella muestra adónde fue la consulta
+        "equipos.replica.local.demora=1h",
+        "equipos.replica.demora-tolerada=0s" })
+class ReplicaTest {
+
+    @Autowired
+    private EquipoService equipoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("primariaDataSource")
+    private DataSource primaria;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @BeforeEach
+    void limpiarCaches() {
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+    }
+
+    @AfterEach
+    void terminarSolicitud() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void lecturasDeEquipoServiceVanALaReplica() {
+        JdbcTemplate jdbc = new JdbcTemplate(replica);
+        jdbc.update("UPDATE equipos SET nombre = 'Real Madrid (réplica)' WHERE id = 1");
+        try {
+            double antes = meterRegistry.counter(RuteoDataSource.CONTADOR_LECTURAS, "destino", RuteoDataSource.REPLICA).count();
+
+            Assertions.assertEquals("Real Madrid (réplica)", equipoService.findById(1L).getNombre());
+            Assertions.assertEquals("Real Madrid (réplica)", equipoService.findAll().get(0).nombre());
+            Assertions.assertEquals(antes + 2, meterRegistry.counter(RuteoDataSource.CONTADOR_LECTURAS, "destino", RuteoDataSource.REPLICA).count());
+        } finally {
+            jdbc.update("UPDATE equipos SET nombre = 'Real Madrid' WHERE id = 1");
+        }
+    }
+
+    @Test
+    public void solicitudQueEscribioLeeDeLaPrimaria() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Equipo creado = equipoService.save(new Equipo("Club Replicado", "Liga Local", "Uruguay"));
+        try {
+            cacheManager.getCache(CacheConfig.CACHE_EQUIPOS).clear();
+            Assertions.assertEquals("Club Replicado", equipoService.findById(creado.getId()).getNombre());
+
+            // otra solicitud lee de la réplica, que todavía no recibió el equipo
+            RequestContextHolder.resetRequestAttributes();
+            cacheManager.getCache(CacheConfig.CACHE_EQUIPOS).clear();
+            CustomizableException e = Assertions.assertThrows(CustomizableException.class,
+                    () -> equipoService.findById(creado.getId()));
+            Assertions.assertEquals(404, e.getCodigo());
+        } finally {
+            equipoService.deleteById(creado.getId());
+        }
+    }
+
+    @Test
+    public void leerDeLaPrimariaDuranteLaDemoraTolerada() {
+        RuteoDataSource ruteo = new RuteoDataSource(primaria, replica, Duration.ofHours(1), new SimpleMeterRegistry());
+        RuteoDataSource sinDemora = new RuteoDataSource(primaria, replica, Duration.ZERO, new SimpleMeterRegistry());
+
+        Assertions.assertTrue(ruteo.puedeLeerReplica());
+        ruteo.registrarEscritura();
+        sinDemora.registrarEscritura();
+
+        Assertions.assertFalse(ruteo.puedeLeerReplica());
+        Assertions.assertTrue(sinDemora.puedeLeerReplica());
+    }
+}
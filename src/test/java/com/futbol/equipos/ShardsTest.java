@@ -0,0 +1,151 @@
+package com.futbol.equipos;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.futbol.equipos.cache.CacheConfig;
+import com.futbol.equipos.entity.Equipo;
+import com.futbol.equipos.esquema.InicializadorEsquema;
+import com.futbol.equipos.exception.CustomizableException;
+import com.futbol.equipos.request.EquipoRequest;
+import com.futbol.equipos.response.EquipoResponse;
+import com.futbol.equipos.response.PaginaEquipos;
+import com.futbol.equipos.service.EquipoService;
+import com.futbol.equipos.shard.Shards;
+import com.futbol.equipos.shard.ShardsDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(properties = {
+        "equipos.shards.urls=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1" })
+class ShardsTest {
+
+    @Autowired
+    private EquipoService equipoService;
+
+    @Autowired
+    private ShardsDataSource shardsDataSource;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private List<SqlDataSourceScriptDatabaseInitializer> inicializadores;
+
+    @BeforeEach
+    void limpiarCaches() {
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+    }
+
+    @Test
+    public void equiposInicialesRepartidosPorPais() {
+        List<EquipoResponse> todos = equipoService.findAll();
+
+        Assertions.assertEquals(24, todos.size());
+        for (int i = 1; i < todos.size(); i++) {
+            Assertions.assertTrue(todos.get(i - 1).id() < todos.get(i).id());
+        }
+        for (EquipoResponse equipo : todos) {
+            Assertions.assertEquals(Shards.shardDePais(equipo.pais(), 2), equipo.id() >>> Shards.BITS_SHARD);
+        }
+        long enShard1 = new JdbcTemplate(shardsDataSource.shard(1)).queryForObject("SELECT COUNT(*) FROM equipos", Long.class);
+        Assertions.assertTrue(enShard1 > 0 && enShard1 < 24);
+        // uno por shard: el de Spring Boot, sobre el DataSource principal, volvería a cargar todos en el shard 0
+        Assertions.assertEquals(2, inicializadores.size());
+        Assertions.assertTrue(inicializadores.stream().allMatch(InicializadorEsquema.class::isInstance));
+        Assertions.assertEquals(24 - enShard1, new JdbcTemplate(shardsDataSource.shard(0)).queryForObject("SELECT COUNT(*) FROM equipos", Long.class));
+        Assertions.assertEquals(24, equipoService.findFacetas().getPais().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    public void paginasMezclanLosShardsEnOrden() {
+        List<EquipoResponse> recorridos = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaEquipos pagina = equipoService.findPagina(cursor, 5, "nombre");
+            recorridos.addAll(pagina.getEquipos());
+            cursor = pagina.getSiguienteCursor();
+        } while (cursor != null);
+
+        Assertions.assertEquals(24, recorridos.size());
+        for (int i = 1; i < recorridos.size(); i++) {
+            Assertions.assertTrue(recorridos.get(i - 1).nombre().compareTo(recorridos.get(i).nombre()) <= 0);
+        }
+    }
+
+    @Test
+    public void equipoNuevoSeGuardaEnElShardDeSuPais() {
+        // Francia queda en el shard 1 y Uruguay en el 0
+        Equipo frances = equipoService.save(new Equipo("Club Repartido", "Ligue 2", "Francia"));
+        Equipo uruguayo = equipoService.save(new Equipo("Club Repartido Sur", "Primera Division", "Uruguay"));
+        try {
+            Assertions.assertEquals(1, frances.getId() >>> Shards.BITS_SHARD);
+            Assertions.assertEquals(0, uruguayo.getId() >>> Shards.BITS_SHARD);
+            Assertions.assertEquals(1, new JdbcTemplate(shardsDataSource.shard(1))
+                    .queryForObject("SELECT COUNT(*) FROM equipos WHERE id = ?", Integer.class, frances.getId()));
+
+            cacheManager.getCache(CacheConfig.CACHE_EQUIPOS).clear();
+            Assertions.assertEquals("Club Repartido", equipoService.findById(frances.getId()).getNombre());
+            Assertions.assertEquals(2, equipoService.findAllByNombreContaining("Repartido").size());
+        } finally {
+            equipoService.deleteById(frances.getId());
+            equipoService.deleteById(uruguayo.getId());
+        }
+    }
+
+    @Test
+    public void cambiarAUnPaisDeOtroShardSeRechaza() {
+        Equipo equipo = equipoService.save(new Equipo("Club Sin Mudanza", "Ligue 2", "Francia"));
+        try {
+            CustomizableException e = Assertions.assertThrows(CustomizableException.class,
+                    () -> equipoService.updateEquipo(equipo.getId(), new EquipoRequest("Club Sin Mudanza", "Ligue 2", "Uruguay"), null));
+            Assertions.assertEquals(409, e.getCodigo());
+
+            EquipoRequest soloPais = new EquipoRequest();
+            soloPais.setPais("Uruguay");
+            e = Assertions.assertThrows(CustomizableException.class,
+                    () -> equipoService.actualizarParcial(equipo.getId(), soloPais, null));
+            Assertions.assertEquals(409, e.getCodigo());
+            Assertions.assertEquals("Francia", new JdbcTemplate(shardsDataSource.shard(1))
+                    .queryForObject("SELECT pais FROM equipos WHERE id = ?", String.class, equipo.getId()));
+        } finally {
+            equipoService.deleteById(equipo.getId());
+        }
+    }
+
+    @Test
+    public void shardLentoCancelaLaConsulta() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Shards shards = new Shards(2, Duration.ofMillis(200), 2, transactionManager, registry);
+        try {
+            CustomizableException e = Assertions.assertThrows(CustomizableException.class, () -> shards.reunir(shard -> {
+                if (shard == 1) {
+                    try {
+                        Thread.sleep(2000);
+                    } catch (InterruptedException interrumpido) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return shard;
+            }));
+            Assertions.assertEquals(504, e.getCodigo());
+            Assertions.assertEquals(1, registry.counter(Shards.CONTADOR_TIMEOUTS, "shard", "1").count());
+        } finally {
+            shards.destroy();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.futbol.equipos;
+
+import java.time.Duration;
+import java.util.Date;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.futbol.equipos.security.TokenCache;
+
+class TokenCacheTest {
+
+    private final UserDetails usuario = User.withUsername("test").password("12345").roles("USER").build();
+
+    @Test
+    public void obtenerTokenGuardado() {
+        TokenCache cache = new TokenCache(100, Duration.ofMinutes(5));
+
+        cache.guardar("token", usuario, new Date(System.currentTimeMillis() + 60_000));
+
+        Assertions.assertEquals(usuario, cache.obtener("token"));
+        Assertions.assertNull(cache.obtener("otro-token"));
+    }
+
+    @Test
+    public void noDevolverTokenExpirado() {
+        TokenCache cache = new TokenCache(100, Duration.ofMinutes(5));
+
+        cache.guardar("token", usuario, new Date(System.currentTimeMillis() - 1));
+
+        Assertions.assertNull(cache.obtener("token"));
+    }
+
+    @Test
+    public void cacheDesactivada() {
+        TokenCache cache = new TokenCache(0, Duration.ofMinutes(5));
+
+        cache.guardar("token", usuario, new Date(System.currentTimeMillis() + 60_000));
+
+        Assertions.assertNull(cache.obtener("token"));
+    }
+}